@@ -9,8 +9,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 
+import chessgame.BitBoard;
 import chessgame.ChessBoard;
 import chessgame.Move;
+import chessgame.MoveList;
+import chessgame.PackedMove;
+import chessgame.Position;
 import io.SpecificFile;
 import io.SpecificFile.SpecificFileIterator;
 import pieces.Piece;
@@ -25,6 +29,24 @@ import pieces.Turn;
  * @since November 17, 2016
  */
 public class AI {
+	/**The lowest level that plays with Search instead of the MovesTree*/
+	private static final int SEARCH_LEVEL = 4;
+	
+	/**The most time (in milliseconds) Search has for a move. Use SEARCH_TIMES[aiLevel - SEARCH_LEVEL]*/
+	private static final long[] SEARCH_TIMES = { 300, 1000 };
+	
+	/**The most positions Search looks at for a move. Use SEARCH_NODES[aiLevel - SEARCH_LEVEL]*/
+	private static final long[] SEARCH_NODES = { 400000, 1500000 };
+	
+	/**The value (in centipawns for the AI) at or below which the AI asks for a draw when it uses Search*/
+	private static final int REQUEST_DRAW_VALUE = -150;
+	
+	/**The size in megabytes of the TranspositionTable of an AI that uses Search*/
+	private static final int TABLE_SIZE = 16;
+	
+	/**The most time (in milliseconds) the AI ponders, so it does not think forever if the game is left*/
+	private static final long PONDER_TIME = 60000;
+	
 	/**The level of the AI*/
 	private int aiLevel;
 	
@@ -42,6 +64,38 @@ public class AI {
 	
 	/**True if the AI wants to request Draw */
 	private boolean toRequestDraw;
+	
+	/**The value of the last move found with Search, for the AI */
+	private int searchValue;
+	
+	/**The best line of packed moves found with the last Search, starting with the move the AI played */
+	private volatile int[] principalVariation = new int[0];
+	
+	/**The time and node limits of Search for this AI (see setSearchLimits) */
+	private long searchTime;
+	private long searchNodes;
+	
+	/**The number of threads Search uses for this AI (see setSearchThreads) */
+	private int searchThreads = 1;
+	
+	/**The positions Search looked at, kept from move to move. null if the AI does not use Search */
+	private TranspositionTable table;
+	
+	/**True if the AI thinks on the player's time (see startPondering) */
+	private boolean pondering;
+	
+	/**The search that is pondering and the thread it runs on, or null if the AI is not pondering.
+	 * The ponder fields are only used in the synchronized ponder methods, which the GUI thread and the AI's
+	 * thread both call */
+	private Search ponderSearch;
+	private Thread ponderThread;
+	
+	/**The hash of the position being pondered, and the System.nanoTime() the pondering started */
+	private long ponderHash;
+	private long ponderStart;
+	
+	/**The value of the position being pondered, set when the pondering is done */
+	private int ponderValue;
 
 	/**
 	 * Creates an AI that plays on the chessBoard
@@ -53,7 +107,143 @@ public class AI {
 		this.aiLevel = level;
 		this.chessBoard = chessBoard;
 		this.aiTurn = turn;
+		if (level >= SEARCH_LEVEL) {
+			int index = Math.min(level - SEARCH_LEVEL, SEARCH_TIMES.length - 1);
+			setSearchLimits(SEARCH_TIMES[index], SEARCH_NODES[index]);
+			table = new TranspositionTable(TABLE_SIZE);
+		}
 	} //end of constructor method
+	
+	/**
+	 * Changes how long Search can think for a move, at the levels that use Search. Search looks deeper
+	 * and deeper and plays the best move of the last depth it finished when either limit runs out.
+	 * @param time - (long) the most time in milliseconds, or 0 for no limit
+	 * @param nodes - (long) the most positions to look at, or 0 for no limit
+	 */
+	public void setSearchLimits(long time, long nodes) {
+		this.searchTime = time;
+		this.searchNodes = nodes;
+	}
+	
+	/**
+	 * Changes the number of threads Search uses, at the levels that use Search. The extra threads help
+	 * the search look deeper in the same time.
+	 * @param threads - (int) the number of threads, for example Runtime.getRuntime().availableProcessors()
+	 */
+	public void setSearchThreads(int threads) {
+		this.searchThreads = Math.max(threads, 1);
+	}
+
+	/**
+	 * Turns pondering on or off, at the levels that use Search (see startPondering)
+	 * @param pondering - (boolean) true to think on the player's time
+	 */
+	public synchronized void setPondering(boolean pondering) {
+		this.pondering = pondering;
+		if (!pondering) {
+			stopPondering();
+		}
+	}
+	
+	/**
+	 * Starts thinking on the player's time. The AI guesses the player's move (the next move of the
+	 * principal variation of the last search, or else the best move for the player saved in the
+	 * TranspositionTable) and searches the position after it in the background. If
+	 * the player plays that move, getMove uses the search right away. If there is no guess, the AI
+	 * searches the player's position instead, which fills the table for all the player's moves. <br>
+	 * Nothing is done if pondering is off, the AI does not use Search, or it is not the player's turn. <br>
+	 * The chessBoard is read here, so this must be called on the thread that plays the moves, before
+	 * the player can move (see startPondering(Position)).
+	 */
+	public synchronized void startPondering() {
+		startPondering(chessBoard.snapshot());
+	}
+	
+	/**
+	 * Starts thinking on the player's time from a snapshot of the player's position (see
+	 * startPondering()). The snapshot can be taken on the thread that played the AI's move, while the
+	 * player can not move yet, and pondering started later from any thread.
+	 * @param position - (Position) the position with the player to move
+	 */
+	public synchronized void startPondering(Position position) {
+		stopPondering();
+		if (!pondering || aiLevel < SEARCH_LEVEL || position.getTurn() == aiTurn) {
+			return;
+		}
+		
+		ChessBoard ponderBoard = new ChessBoard(position);
+		MoveList moves = new MoveList();
+		ponderBoard.generateLegalMoves(moves);
+		int guess = principalVariation.length > 1 ? principalVariation[1] : PackedMove.NONE;
+		if (!moves.contains(guess)) {
+			guess = TranspositionTable.getMove(table.probe(position.getHash()));
+		}
+		if (guess != PackedMove.NONE && moves.contains(guess)) {
+			ponderBoard.makeMove(guess);
+		}
+		
+		Search search = new Search(ponderBoard, table);
+		search.setTimeLimit(PONDER_TIME);
+		search.setThreads(searchThreads);
+		ponderSearch = search;
+		ponderHash = ponderBoard.getHash();
+		ponderStart = System.nanoTime();
+		ponderThread = new Thread(new Runnable(){
+			public void run(){
+				ponderValue = search.iterativeSearch(Search.MAX_PLY);
+			}
+		}, "AI ponder");
+		ponderThread.setDaemon(true);
+		ponderThread.start();
+	}
+	
+	/**
+	 * Stops pondering and throws the search away. The positions it searched stay in the table.
+	 */
+	public synchronized void stopPondering() {
+		if (ponderSearch != null) {
+			ponderSearch.stop();
+			joinPonderThread(0);
+			ponderSearch = null;
+			ponderThread = null;
+		}
+	}
+	
+	/**
+	 * Waits for the pondering thread to finish
+	 * @param millis - (long) the most time to wait, or 0 to wait until it is done
+	 */
+	private void joinPonderThread(long millis) {
+		try {
+			ponderThread.join(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Ends the pondering when it is the AI's turn. If the position pondered is the position on the
+	 * chessBoard, the search is given the rest of the AI's time and returned. Otherwise the search is
+	 * thrown away.
+	 * @return Search - the finished ponder search of this position, or null if the guess was wrong
+	 */
+	private synchronized Search finishPondering() {
+		Search search = ponderSearch;
+		if (search == null || ponderHash != chessBoard.getHash()) {
+			stopPondering();
+			return null;
+		}
+		
+		long waited = (System.nanoTime() - ponderStart) / 1000000;
+		if (searchTime > waited) {
+			joinPonderThread(searchTime - waited);
+		}
+		search.stop();
+		joinPonderThread(0);
+		ponderSearch = null;
+		ponderThread = null;
+		return search;
+	}
 
 	/**
 	 * Returns the level of the AI
@@ -69,6 +259,9 @@ public class AI {
 	 * @return Move - move to play
 	 */
 	public Move getMove() {
+		if (aiLevel >= SEARCH_LEVEL) {
+			return searchMove();
+		}
 		movesTree = new MovesTree();
 		Move toMove = movesTree.getMove();
 		return toMove;
@@ -88,7 +281,7 @@ public class AI {
 	 */
 	public Piece getPromotion() {
 		//I believe that even level 1 players will take a QUEEN, so i'll say QUEEN only for now
-		return new Piece(aiTurn, QUEEN);
+		return Piece.valueOf(aiTurn, QUEEN);
 	}
 
 	/**
@@ -97,11 +290,84 @@ public class AI {
 	 * @return true if the AI wants a draw and false otherWise
 	 */
 	public boolean askedForDraw() {
+		if (aiLevel >= SEARCH_LEVEL) {
+			boolean accepts = searchValueForAI() < Search.DRAW;
+			if (!accepts) {
+				startPondering();
+			}
+			return accepts;
+		}
 		//to add Values onto moveTree
 		getMove();
 		return movesTree.requestedDraw();
 	}
 	
+	/**
+	 * Searches the position on the chessBoard for the AI, whoever's turn it is. Search gives the value for
+	 * the mover, so it is turned around on the player's turn. Pondering is stopped, and the last move
+	 * the AI found (its principalVariation and draw wishes) is left as it was.
+	 * @return int - the value of the position for the AI
+	 */
+	private int searchValueForAI() {
+		stopPondering();
+		Search search = new Search(chessBoard, table);
+		search.setTimeLimit(searchTime);
+		search.setNodeLimit(searchNodes);
+		search.setThreads(searchThreads);
+		int value = search.iterativeSearch(Search.MAX_PLY);
+		return chessBoard.getTurn() == aiTurn ? value : -value;
+	}//end of searchValueForAI method
+	
+	/**
+	 * Returns the best move found with an alpha-beta Search. Higher levels have more time to look
+	 * deeper. If the AI pondered this position, that search is used instead. <br>
+	 * Also resets the Variables if the AI wants draw or not
+	 * @return Move - the move to play
+	 */
+	private Move searchMove() {
+		Search search = finishPondering();
+		if (search != null) {
+			searchValue = ponderValue;
+		} else {
+			search = new Search(chessBoard, table);
+			search.setTimeLimit(searchTime);
+			search.setNodeLimit(searchNodes);
+			search.setThreads(searchThreads);
+			searchValue = search.iterativeSearch(Search.MAX_PLY);
+		}
+		int bestMove = search.getBestMove();
+		principalVariation = search.getPrincipalVariation();
+		
+		// the availableMoves have the checked value set
+		Move move = null;
+		for (Move availableMove : chessBoard.getAvailableMoves()) {
+			if (BitBoard.square(availableMove.startX(), availableMove.startY()) == PackedMove.getStart(bestMove)
+					&& BitBoard.square(availableMove.endX(), availableMove.endY()) == PackedMove.getEnd(bestMove)) {
+				move = availableMove;
+				break;
+			}
+		}
+		
+		toRequestDraw = searchValue <= REQUEST_DRAW_VALUE;
+		toDeclareDraw = move != null && chessBoard.viewMove(move).checkWin().equals(ChessBoard.POSSIBLE_DRAW);
+		return move;
+	}//end of searchMove method
+	
+	/**
+	 * Returns the best line the AI found with its last Search, for both sides, like "pe2-e4 pe7-e5"
+	 * @return String - the moves of the line, or an empty String if the AI has not searched yet
+	 */
+	public String getPrincipalVariation(){
+		StringBuilder line = new StringBuilder();
+		for (int move : principalVariation) {
+			if (line.length() > 0) {
+				line.append(' ');
+			}
+			line.append(PackedMove.toString(move));
+		}
+		return line.toString();
+	}
+	
 	/**
 	 * Returns if the AI wants a draw
 	 * @return true if the AI wants a draw and false otherwise
@@ -160,6 +426,9 @@ public class AI {
 		/**The current node the tree is on*/
 		private Node currentNode;
 		
+		/**A copy of the chessBoard that the tree moves through with makeMove and unmakeMove*/
+		private ChessBoard board;
+		
 		/**The max depth of this move tree.*/
 		private int depth;
 		
@@ -168,7 +437,8 @@ public class AI {
 		 * 
 		 */
 		protected MovesTree() {
-			currentNode = new Node(null, null, chessBoard);
+			currentNode = new Node(null, null);
+			board = new ChessBoard(chessBoard);
 			
 			//determine depth
 			if (aiLevel <= 3) {
@@ -192,11 +462,11 @@ public class AI {
 			evaluateNode(currentNode);
 			double begPoints = currentNode.value;
 			Move move = getMoveHelper();
-			currentNode.chessBoard.move(move);
+			board.makeMove(move);
 			evaluateNode(currentNode);
 			double endPoints = currentNode.value;
-			String winMethod = currentNode.chessBoard.checkWin();
-			currentNode.chessBoard.undo();
+			String winMethod = board.checkWin();
+			board.unmakeMove();
 			
 			//10 being point ratio for draw
 			if (begPoints - endPoints < 5 && requestedDraw()){
@@ -233,13 +503,15 @@ public class AI {
 
 		/**
 		 * addValues method 3: puts a value using the evaulate function for all 
-		 * subnodes of the currentNode
+		 * subnodes of the currentNode. The board must be on the position of currentNode.
 		 * 
 		 * @param currentNode - (Node) node to add values on
 		 */
 		private void addValues(Node currentNode) {
 			for (Node n : currentNode.nextNodes) {
+				board.makeMove(n.move);
 				evaluateNode(n);
+				board.unmakeMove();
 			}
 		}//end of addValues method
 
@@ -249,14 +521,15 @@ public class AI {
 		 * 
 		 * It uses PreOrder traversal to first get all the nodes created,
 		 * and once all the subnodes are created, it uses postOrder traversal to 
-		 * determine the value of the node
+		 * determine the value of the node. The board must be on the position of currentNode,
+		 * and it is put back on that position when this returns.
 		 * 
 		 * @param currentNode - (Node) the currentNode to deal with for this recursive call
 		 * @param depth - (int) the depth so far in the tree.
 		 */
 		private void addValues(Node currentNode, int depth) {
 			// Ending Condition. If its game over or if depth is reached
-			if (depth >= this.depth || !currentNode.chessBoard.checkWin().equals(ChessBoard.CURRENTLY_PLAYING)) {
+			if (depth >= this.depth || !board.checkWin().equals(ChessBoard.CURRENTLY_PLAYING)) {
 				if (Math.random() * 2.5 > aiLevel) {
 					// be stupid if aiLevel is 1 or 2, return the default value
 					currentNode.value = 50;
@@ -269,14 +542,13 @@ public class AI {
 
 			//set/update important variables
 			depth++;
-			Turn currentTurn = currentNode.chessBoard.getTurn();
+			Turn currentTurn = board.getTurn();
 			ArrayList<Node> next = currentNode.nextNodes;
-			ArrayList<Move> availableMoves = currentNode.chessBoard.getAvailableMoves();
+			ArrayList<Move> availableMoves = board.getAvailableMoves();
 			
 			//Adds a node for each availableMoves
 			for (Move move : availableMoves) {
-				ChessBoard newChessBoard = currentNode.chessBoard.viewMove(move);
-				next.add(new Node(move, currentNode, newChessBoard));
+				next.add(new Node(move, currentNode));
 			}
 
 			// cutDown nodes
@@ -292,7 +564,9 @@ public class AI {
 
 			//Recusive calls on subnodes and get thier values filled in
 			for (int i = 0; i < next.size(); i++) {
+				board.makeMove(next.get(i).move);
 				addValues(next.get(i), depth);
+				board.unmakeMove();
 			}
 
 			//sort values for this node and set it to the highest value
@@ -301,26 +575,27 @@ public class AI {
 		}//end of addValues method
 
 		/**
-		 * Evaluates the value for a given node and places the result in node.value
+		 * Evaluates the value for a given node and places the result in node.value. The board
+		 * must be on the position of the node.
 		 * 
 		 * @param n - (Node) node to evaluate
 		 */
 		private void evaluateNode(Node n) {
-			Turn turn = n.chessBoard.getTurn();
+			Turn turn = board.getTurn();
 
 			// sort out all non-possible opponent Available Moves. check must be
 			// false or it will be an illegal Move (which it is not)
-			ArrayList<Move> opponentAvailableMoves = Piece.filterAvailableMoves(n.chessBoard,
-					n.chessBoard.getOpponentAvailableMoves(), n.chessBoard.getAvailableMoves(), false,
+			ArrayList<Move> opponentAvailableMoves = Piece.filterAvailableMoves(board,
+					board.getOpponentAvailableMoves(), board.getAvailableMoves(), false,
 					ChessBoard.getOppositeTurn(turn)); 
 			
 			//gives in variables depending on the currentTurn
 			if (turn == aiTurn) {
-				n.value = ChessBoardEvaluator.evaluate(aiTurn, n.chessBoard, n.chessBoard.getAvailableMoves(),
+				n.value = ChessBoardEvaluator.evaluate(aiTurn, board, board.getAvailableMoves(),
 						opponentAvailableMoves, n.move, turn);
 			} else {
-				n.value = ChessBoardEvaluator.evaluate(aiTurn, n.chessBoard, opponentAvailableMoves,
-						n.chessBoard.getAvailableMoves(), n.move, turn);
+				n.value = ChessBoardEvaluator.evaluate(aiTurn, board, opponentAvailableMoves,
+						board.getAvailableMoves(), n.move, turn);
 
 			}
 		}//end of evaluate Nodes function
@@ -420,7 +695,7 @@ public class AI {
 	 * A Node of the class. A node is created for each new move available, and it stores 
 	 * the following information about that move: <br>
 	 * Its Value <br>
-	 * Its chessBoard (position) <br>
+	 * Its move (the position is reached by playing the moves from the root) <br>
 	 * <br>
 	 * And just like any other node would store, it stores the previous Nodes and the next Nodes.
 	 * 
@@ -433,9 +708,6 @@ public class AI {
 		/** The move this Node contains */
 		private Move move;
 		
-		/**The ChessBoard this node contains */
-		private ChessBoard chessBoard;
-		
 		/**The value of the Node */
 		private double value;
 		
@@ -447,12 +719,10 @@ public class AI {
 		 * 
 		 * @param move - (move) move to take to reach the position as given in the chessBoard param
 		 * @param previousNode - (Node) the previous Node in this Tree
-		 * @param chessBoard - (ChessBoard) the board state of this node
 		 */
-		private Node(Move move, Node previousNode, ChessBoard chessBoard) {
+		private Node(Move move, Node previousNode) {
 			this.move = move;
 			this.previousNode = previousNode;
-			this.chessBoard = chessBoard;
 		}
 
 		/**
@@ -489,19 +759,6 @@ public class AI {
 	 * @Since November 17
 	 */
 	private static class ChessBoardEvaluator {
-		/**The WHITE_ROOK_STARTING_POSITIONS. use index 1 for left rook and index 2 for right */
-		private static final int[][] WHITE_ROOK_STARTING_POSITIONS = new int[][]{{0, 0}, {7, 0}};
-		
-		/**The BLACK_ROOK_STARTING_POSITIONS. use index 1 for left rook and index 2 for right */
-		private static final int[][] BLACK_ROOK_STARTING_POSITIONS = new int[][]{{0, 7}, {7, 7}};
-		
-		/**The WHITE_KING_STARTING_POSITION*/
-		private static final int[] WHITE_KING_STARTING_POSITION = new int[]{4, 0};
-		
-		/**The BLACK_KING_STARTING_POSITION*/
-		private static final int[] BLACK_KING_STARTING_POSITION = new int[]{4, 7};
-		
-		
 		/* EVAULATE VALUES */
 		/**The base values of all the Pieces. Use BASE_VALUES[pieceType.getOrdinal()]*/
 		static final double[] BASE_VALUES = { 1, 3, 3, 5, 9, 0};
@@ -586,15 +843,8 @@ public class AI {
 			/* Check if any castles capable to be done
 			 * and add them to the total points if required
 			 */
-			int aiCastles;
-			int opponentCastles; 
-			if (aiTurn == Turn.WHITE){
-				aiCastles = numberOfAvailableCastles(chessBoard, WHITE_ROOK_STARTING_POSITIONS, WHITE_KING_STARTING_POSITION);
-				opponentCastles = numberOfAvailableCastles(chessBoard, BLACK_ROOK_STARTING_POSITIONS, BLACK_KING_STARTING_POSITION);
-			} else {
-				aiCastles = numberOfAvailableCastles(chessBoard, BLACK_ROOK_STARTING_POSITIONS, BLACK_KING_STARTING_POSITION);
-				opponentCastles = numberOfAvailableCastles(chessBoard, WHITE_ROOK_STARTING_POSITIONS, WHITE_KING_STARTING_POSITION);
-			}
+			int aiCastles = numberOfAvailableCastles(chessBoard, aiTurn);
+			int opponentCastles = numberOfAvailableCastles(chessBoard, ChessBoard.getOppositeTurn(aiTurn));
 			aiTotal += CAN_CASTLE[aiCastles];
 			opponentTotal += CAN_CASTLE[opponentCastles];
 			
@@ -714,25 +964,18 @@ public class AI {
 		}//end of containsPawn method
 		
 		/**
-		 * This method returns the number of ways a player can castles. Both the positions given
-		 * in should be for the same Turn.
-		 * @param rookPosition - (int[][]) the positions of the two rooks as written in one of the 
-		 * 						static variables 
-		 * @param kingPosition - (int[]) the positions of the king as written in one of the static variables
+		 * This method returns the number of ways a player can castles, which is the number of
+		 * castling rights the turn still has.
 		 * @param chessBoard - (chessboard) the chessBoard position that this method is going to use
+		 * @param turn - (Turn) the turn of the player
 		 * @return int - number of ways the person with this turn can castle
 		 */
-		private static int numberOfAvailableCastles(ChessBoard chessBoard, int[][] rookPosition, int[] kingPosition){
-			
-			if (!chessBoard.hasNotMoved(kingPosition)){
-				return 0;
-			} 
-			
+		private static int numberOfAvailableCastles(ChessBoard chessBoard, Turn turn){
 			int numberOfCastles = 0;
-			if (chessBoard.hasNotMoved(rookPosition[0])){
+			if (chessBoard.hasCastlingRight(turn, true)){
 				numberOfCastles++;
 			} 
-			if (chessBoard.hasNotMoved(rookPosition[1])){
+			if (chessBoard.hasCastlingRight(turn, false)){
 				numberOfCastles++;
 			}
 			return numberOfCastles;
@@ -0,0 +1,170 @@
+package ai;
+
+import static pieces.PieceType.*;
+import static pieces.Turn.*;
+
+import chessgame.BitBoard;
+import chessgame.ChessBoard;
+import pieces.PieceType;
+import pieces.Turn;
+
+/**
+ * A fast evaluation for Search. The value of a position is the material of each side plus a bonus for
+ * the square every piece stands on (a piece-square table), in centipawns (a pawn is 100). Everything is
+ * read from the bitboards, so no moves are generated. <br>
+ * <br>
+ * The tables are written the way a board is printed, with the 8th row first and from WHITE's side.
+ * Black pieces use the same tables flipped upside down.
+ *
+ * @author frankliu197
+ */
+public final class Evaluator {
+	/** The value of every pieceType in centipawns. Use PIECE_VALUES[pieceType.ordinal()] */
+	public static final int[] PIECE_VALUES = { 100, 330, 320, 500, 900, 0, 0 };
+
+	/** The bonus of a pawn on every square */
+	private static final int[] PAWN_TABLE = {
+		 0,  0,  0,  0,  0,  0,  0,  0,
+		50, 50, 50, 50, 50, 50, 50, 50,
+		10, 10, 20, 30, 30, 20, 10, 10,
+		 5,  5, 10, 25, 25, 10,  5,  5,
+		 0,  0,  0, 20, 20,  0,  0,  0,
+		 5, -5,-10,  0,  0,-10, -5,  5,
+		 5, 10, 10,-20,-20, 10, 10,  5,
+		 0,  0,  0,  0,  0,  0,  0,  0
+	};
+
+	/** The bonus of a knight on every square */
+	private static final int[] KNIGHT_TABLE = {
+		-50,-40,-30,-30,-30,-30,-40,-50,
+		-40,-20,  0,  0,  0,  0,-20,-40,
+		-30,  0, 10, 15, 15, 10,  0,-30,
+		-30,  5, 15, 20, 20, 15,  5,-30,
+		-30,  0, 15, 20, 20, 15,  0,-30,
+		-30,  5, 10, 15, 15, 10,  5,-30,
+		-40,-20,  0,  5,  5,  0,-20,-40,
+		-50,-40,-30,-30,-30,-30,-40,-50
+	};
+
+	/** The bonus of a bishop on every square */
+	private static final int[] BISHOP_TABLE = {
+		-20,-10,-10,-10,-10,-10,-10,-20,
+		-10,  0,  0,  0,  0,  0,  0,-10,
+		-10,  0,  5, 10, 10,  5,  0,-10,
+		-10,  5,  5, 10, 10,  5,  5,-10,
+		-10,  0, 10, 10, 10, 10,  0,-10,
+		-10, 10, 10, 10, 10, 10, 10,-10,
+		-10,  5,  0,  0,  0,  0,  5,-10,
+		-20,-10,-10,-10,-10,-10,-10,-20
+	};
+
+	/** The bonus of a rook on every square */
+	private static final int[] ROOK_TABLE = {
+		 0,  0,  0,  0,  0,  0,  0,  0,
+		 5, 10, 10, 10, 10, 10, 10,  5,
+		-5,  0,  0,  0,  0,  0,  0, -5,
+		-5,  0,  0,  0,  0,  0,  0, -5,
+		-5,  0,  0,  0,  0,  0,  0, -5,
+		-5,  0,  0,  0,  0,  0,  0, -5,
+		-5,  0,  0,  0,  0,  0,  0, -5,
+		 0,  0,  0,  5,  5,  0,  0,  0
+	};
+
+	/** The bonus of a queen on every square */
+	private static final int[] QUEEN_TABLE = {
+		-20,-10,-10, -5, -5,-10,-10,-20,
+		-10,  0,  0,  0,  0,  0,  0,-10,
+		-10,  0,  5,  5,  5,  5,  0,-10,
+		 -5,  0,  5,  5,  5,  5,  0, -5,
+		  0,  0,  5,  5,  5,  5,  0, -5,
+		-10,  5,  5,  5,  5,  5,  0,-10,
+		-10,  0,  5,  0,  0,  0,  0,-10,
+		-20,-10,-10, -5, -5,-10,-10,-20
+	};
+
+	/** The bonus of a king on every square while there are still queens or many pieces on the board */
+	private static final int[] KING_TABLE = {
+		-30,-40,-40,-50,-50,-40,-40,-30,
+		-30,-40,-40,-50,-50,-40,-40,-30,
+		-30,-40,-40,-50,-50,-40,-40,-30,
+		-30,-40,-40,-50,-50,-40,-40,-30,
+		-20,-30,-30,-40,-40,-30,-30,-20,
+		-10,-20,-20,-20,-20,-20,-20,-10,
+		 20, 20,  0,  0,  0,  0, 20, 20,
+		 20, 30, 10,  0,  0, 10, 30, 20
+	};
+
+	/** The bonus of a king on every square in the endgame, where the king should come to the middle */
+	private static final int[] KING_ENDGAME_TABLE = {
+		-50,-40,-30,-20,-20,-30,-40,-50,
+		-30,-20,-10,  0,  0,-10,-20,-30,
+		-30,-10, 20, 30, 30, 20,-10,-30,
+		-30,-10, 30, 40, 40, 30,-10,-30,
+		-30,-10, 30, 40, 40, 30,-10,-30,
+		-30,-10, 20, 30, 30, 20,-10,-30,
+		-30,-30,  0,  0,  0,  0,-30,-30,
+		-50,-30,-30,-30,-30,-30,-30,-50
+	};
+
+	/** The pieceTypes counted by their table, the king is counted on its own */
+	private static final PieceType[] TABLE_PIECE_TYPES = { PAWN, BISHOP, KNIGHT, ROOK, QUEEN };
+
+	/** The tables of every pieceType. Use TABLES[pieceType.ordinal()] */
+	private static final int[][] TABLES = { PAWN_TABLE, BISHOP_TABLE, KNIGHT_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_TABLE };
+
+	/** The material (without pawns and kings) of both sides together, below which it is the endgame */
+	private static final int ENDGAME_MATERIAL = 2 * PIECE_VALUES[ROOK.ordinal()] + 2 * PIECE_VALUES[BISHOP.ordinal()];
+
+	/**
+	 * This class cannot be created
+	 */
+	private Evaluator() {
+	}
+
+	/**
+	 * Returns the value of the position for the turn to move, in centipawns. A positive value means the
+	 * mover is better. Checkmate and draws are left to the search.
+	 * @param chessBoard (ChessBoard) - the position to evaluate
+	 * @return int - the value of the position for the mover
+	 */
+	public static int evaluate(ChessBoard chessBoard) {
+		int white = 0;
+		int black = 0;
+		int pieceMaterial = 0;
+
+		for (PieceType pieceType : TABLE_PIECE_TYPES) {
+			int[] table = TABLES[pieceType.ordinal()];
+			int value = PIECE_VALUES[pieceType.ordinal()];
+			for (long pieces = chessBoard.getBitBoard(pieceType, WHITE); pieces != 0; pieces = BitBoard.popLowest(pieces)) {
+				white += value + table[tableIndex(BitBoard.lowest(pieces), WHITE)];
+				pieceMaterial += pieceType == PAWN ? 0 : value;
+			}
+			for (long pieces = chessBoard.getBitBoard(pieceType, BLACK); pieces != 0; pieces = BitBoard.popLowest(pieces)) {
+				black += value + table[tableIndex(BitBoard.lowest(pieces), BLACK)];
+				pieceMaterial += pieceType == PAWN ? 0 : value;
+			}
+		}
+
+		int[] kingTable = pieceMaterial <= ENDGAME_MATERIAL ? KING_ENDGAME_TABLE : KING_TABLE;
+		for (long kings = chessBoard.getBitBoard(KING, WHITE); kings != 0; kings = BitBoard.popLowest(kings)) {
+			white += kingTable[tableIndex(BitBoard.lowest(kings), WHITE)];
+		}
+		for (long kings = chessBoard.getBitBoard(KING, BLACK); kings != 0; kings = BitBoard.popLowest(kings)) {
+			black += kingTable[tableIndex(BitBoard.lowest(kings), BLACK)];
+		}
+
+		return chessBoard.getTurn() == BLACK ? black - white : white - black;
+	}//end of evaluate method
+
+	/**
+	 * Returns the index in a table of a square. The tables start at the 8th row for WHITE, and are
+	 * flipped for BLACK.
+	 * @param square (int) - the square index (see BitBoard)
+	 * @param turn (Turn) - the turn of the piece
+	 * @return int - the index in the table
+	 */
+	private static int tableIndex(int square, Turn turn) {
+		int y = BitBoard.getY(square);
+		return (turn == WHITE ? ChessBoard.LENGTH - 1 - y : y) * ChessBoard.LENGTH + BitBoard.getX(square);
+	}//end of tableIndex method
+}//end of Evaluator class
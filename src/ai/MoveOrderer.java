@@ -0,0 +1,156 @@
+package ai;
+
+import java.util.Arrays;
+
+import chessgame.BitBoard;
+import chessgame.MoveList;
+import chessgame.PackedMove;
+import pieces.Piece;
+
+/**
+ * Puts the moves of a position in the order Search tries them. Alpha-beta cuts off the most when the
+ * best move is searched first, so the moves most likely to be best go first: <br>
+ * <br>
+ * <b>1.</b> the hash move, the best move saved in the TranspositionTable <br>
+ * <b>2.</b> takes and promotions, the most valuable piece taken by the least valuable piece first
+ * (MVV-LVA) <br>
+ * <b>3.</b> the killer moves, quiet moves that cut off at the same ply in another position <br>
+ * <b>4.</b> the other quiet moves, by how often they cut off anywhere in the search (the history) <br>
+ * <br>
+ * Every move is given a score once, and next picks the best move left each time it is called, so the
+ * moves after a cut off are never sorted. A MoveOrderer belongs to one Search and is not thread safe.
+ *
+ * @author frankliu197
+ */
+public class MoveOrderer {
+	/** The number of killer moves kept for every ply */
+	private static final int KILLERS = 2;
+
+	/* The scores of each kind of move. Every kind is above all the kinds after it */
+	private static final int HASH_MOVE_SCORE = 1 << 30;
+	private static final int CAPTURE_SCORE = 1 << 29;
+	private static final int KILLER_SCORE = 1 << 28;
+
+	/** The history score at which all the history scores are halved, so they stay below KILLER_SCORE */
+	private static final int HISTORY_LIMIT = 1 << 20;
+
+	/** The killer moves of every ply, newest first */
+	private final int[][] killers = new int[Search.MAX_PLY][KILLERS];
+
+	/** How much every quiet move caused cut offs. Use history[piece index][end square] */
+	private final int[][] history = new int[Piece.EMPTY_INDEX][BitBoard.SQUARES];
+
+	/** The scores of the moves in the MoveList of every ply */
+	private final int[][] scores = new int[Search.MAX_PLY][MoveList.MAX_MOVES];
+
+	/**
+	 * Gets ready for a new search. The killer moves are thrown away since the plies are different now,
+	 * and the history is halved so the newest cut offs count the most.
+	 */
+	public void newSearch() {
+		for (int[] plyKillers : killers) {
+			Arrays.fill(plyKillers, PackedMove.NONE);
+		}
+		ageHistory();
+	}//end of newSearch method
+
+	/**
+	 * Gives every move of a position its score. Must be called before next
+	 * @param moves (MoveList) - the moves of the position
+	 * @param ply (int) - the number of plies from the root
+	 * @param hashMove (int) - the packed move to search first, or PackedMove.NONE
+	 */
+	public void score(MoveList moves, int ply, int hashMove) {
+		int[] plyScores = scores[ply];
+		int[] plyKillers = killers[ply];
+		for (int i = 0; i < moves.size(); i++) {
+			int move = moves.get(i);
+			if (move == hashMove) {
+				plyScores[i] = HASH_MOVE_SCORE;
+			} else if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+				plyScores[i] = CAPTURE_SCORE + mvvLva(move);
+			} else if (move == plyKillers[0]) {
+				plyScores[i] = KILLER_SCORE + 1;
+			} else if (move == plyKillers[1]) {
+				plyScores[i] = KILLER_SCORE;
+			} else {
+				plyScores[i] = history[PackedMove.getPiece(move)][PackedMove.getEnd(move)];
+			}
+		}
+	}//end of score method
+
+	/**
+	 * Moves the best move from index on to index and returns it
+	 * @param moves (MoveList) - the moves given to score
+	 * @param ply (int) - the ply given to score
+	 * @param index (int) - the number of moves already tried
+	 * @return int - the packed move to try next
+	 */
+	public int next(MoveList moves, int ply, int index) {
+		int[] plyScores = scores[ply];
+		int best = index;
+		for (int i = index + 1; i < moves.size(); i++) {
+			if (plyScores[i] > plyScores[best]) {
+				best = i;
+			}
+		}
+		if (best != index) {
+			moves.swap(index, best);
+			int score = plyScores[index];
+			plyScores[index] = plyScores[best];
+			plyScores[best] = score;
+		}
+		return moves.get(index);
+	}//end of next method
+
+	/**
+	 * Remembers a move that caused a cut off. Takes and promotions are already searched early, so only
+	 * quiet moves are kept.
+	 * @param move (int) - the packed move that cut off
+	 * @param ply (int) - the number of plies from the root
+	 * @param depth (int) - the depth left at the position. Deeper cut offs save more, so they count more
+	 */
+	public void cutOff(int move, int ply, int depth) {
+		if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+			return;
+		}
+		int[] plyKillers = killers[ply];
+		if (plyKillers[0] != move) {
+			plyKillers[1] = plyKillers[0];
+			plyKillers[0] = move;
+		}
+
+		int piece = PackedMove.getPiece(move);
+		int end = PackedMove.getEnd(move);
+		history[piece][end] += depth * depth;
+		if (history[piece][end] >= HISTORY_LIMIT) {
+			ageHistory();
+		}
+	}//end of cutOff method
+
+	/**
+	 * Halves every history score
+	 */
+	private void ageHistory() {
+		for (int[] squares : history) {
+			for (int square = 0; square < squares.length; square++) {
+				squares[square] >>= 1;
+			}
+		}
+	}//end of ageHistory method
+
+	/**
+	 * Returns the MVV-LVA score of a take or promotion. The value of what is taken (plus what a pawn
+	 * promotes into) counts the most, then the cheaper the piece moving, the better.
+	 * @param move (int) - the packed move
+	 * @return int - the score, higher is better
+	 */
+	private static int mvvLva(int move) {
+		int victim = Evaluator.PIECE_VALUES[PackedMove.getTaken(move) / 2];
+		int attacker = Evaluator.PIECE_VALUES[PackedMove.getPiece(move) / 2];
+		if (PackedMove.isPromotion(move)) {
+			victim += Evaluator.PIECE_VALUES[PackedMove.getPromotion(move).ordinal()];
+		}
+		return victim * 10 - attacker / 10;
+	}//end of mvvLva method
+}//end of MoveOrderer class
@@ -0,0 +1,362 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chessgame.ChessBoard;
+import chessgame.MoveList;
+import chessgame.PackedMove;
+
+/**
+ * A parallel search that splits the root moves across a ForkJoinPool (young brothers wait). The first
+ * root move, which is the best move of the last depth, is searched on its own with the full window.
+ * Once it has given a value to beat, the other root moves are searched at the same time, each against
+ * the best value found so far with a null window (see Search), and the pool's threads steal the moves
+ * that are left when they are done. <br>
+ * <br>
+ * Every thread of the pool searches with its own worker Search, which has its own copy of the
+ * chessBoard, so no board is shared. The workers share the TranspositionTable. getThreadNodes gives
+ * the positions each worker looked at, to see how evenly the work was split. <br>
+ * <br>
+ * This is another way to use more threads than the Lazy SMP mode of Search (see Search.setThreads).
+ *
+ * @author frankliu197
+ */
+public class ParallelSearch {
+	/** The position that is searched */
+	private final ChessBoard chessBoard;
+
+	/** The table of searched positions, shared by the workers */
+	private final TranspositionTable table;
+
+	/** The number of threads in the pool */
+	private final int threads;
+
+	/** The legal moves of the root position, best first */
+	private final MoveList rootMoves = new MoveList();
+
+	/** The worker Search of every thread of the pool, made when the thread first needs one */
+	private final List<Search> workers = new CopyOnWriteArrayList<>();
+
+	/** The worker of the current thread, for the current search */
+	private ThreadLocal<Search> worker;
+
+	/** The best move found by the last search */
+	private int bestMove = PackedMove.NONE;
+
+	/** The most time the search can take in milliseconds, or 0 for no limit */
+	private long timeLimit;
+
+	/** The most positions the workers together can look at, or 0 for no limit */
+	private long nodeLimit;
+
+	/** The System.nanoTime() at which the search has to stop */
+	private long stopTime;
+
+	/** True if the search ran out of time or nodes. Read by every worker */
+	private volatile boolean stopped;
+
+	/** The deepest depth the last search finished */
+	private volatile int completedDepth;
+
+	/* The pruning the workers search with (see Search.setNullMovePruning and the setters after it) */
+	private boolean nullMovePruning = true;
+	private boolean lateMoveReductions = true;
+	private boolean futilityPruning = true;
+
+	/**
+	 * Creates a parallel search of the position on the chessBoard. The chessBoard is copied, so it is not
+	 * changed by the search.
+	 * @param chessBoard (ChessBoard) - the position to search
+	 * @param table (TranspositionTable) - the table the workers share
+	 * @param threads (int) - the number of threads to search with, at least 1
+	 */
+	public ParallelSearch(ChessBoard chessBoard, TranspositionTable table, int threads) {
+		this.chessBoard = new ChessBoard(chessBoard);
+		this.table = table;
+		this.threads = Math.max(threads, 1);
+	}//end of constructor
+
+	/**
+	 * Searches one depth after another, up to maxDepth, until the time or node limit runs out. The first
+	 * depth is always finished, so there is always a move. Use getBestMove() to get the move.
+	 * @param maxDepth (int) - the deepest depth to search, at most Search.MAX_PLY
+	 * @return int - the value of the position for the mover, from the last depth that was finished
+	 */
+	public int iterativeSearch(int maxDepth) {
+		stopped = false;
+		bestMove = PackedMove.NONE;
+		completedDepth = 0;
+		stopTime = System.nanoTime() + timeLimit * 1000000;
+		workers.clear();
+		worker = new ThreadLocal<Search>() {
+			@Override
+			protected Search initialValue() {
+				Search search = new Search(chessBoard, table);
+				search.startWorker(ParallelSearch.this);
+				search.setNullMovePruning(nullMovePruning);
+				search.setLateMoveReductions(lateMoveReductions);
+				search.setFutilityPruning(futilityPruning);
+				workers.add(search);
+				return search;
+			}
+		};
+
+		rootMoves.clear();
+		chessBoard.generateLegalMoves(rootMoves);
+		if (rootMoves.isEmpty()) {
+			return chessBoard.inCheck() ? -Search.MATE : Search.DRAW;
+		}
+		orderRootMoves();
+
+		int value = Search.DRAW;
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			for (int depth = 1; depth <= Math.min(maxDepth, Search.MAX_PLY); depth++) {
+				RootSearch rootSearch = new RootSearch(depth);
+				int depthValue = pool.invoke(rootSearch);
+				if (stopped) {
+					break;
+				}
+				value = depthValue;
+				bestMove = rootSearch.bestMove;
+				completedDepth = depth;
+				table.store(chessBoard.getHash(), bestMove, value, depth, TranspositionTable.EXACT);
+
+				// the best move is searched first at the next depth, and the other moves keep their order
+				for (int i = 1; i < rootMoves.size(); i++) {
+					if (rootMoves.get(i) == bestMove) {
+						for (int j = i; j > 0; j--) {
+							rootMoves.swap(j, j - 1);
+						}
+						break;
+					}
+				}
+
+				// a mate can not be improved on by looking deeper
+				if (Search.isMate(value)) {
+					break;
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return value;
+	}//end of iterativeSearch method
+
+	/**
+	 * Puts the root moves in the order of a MoveOrderer, with the move saved in the table first
+	 */
+	private void orderRootMoves() {
+		MoveOrderer moveOrderer = new MoveOrderer();
+		moveOrderer.score(rootMoves, 0, TranspositionTable.getMove(table.probe(chessBoard.getHash())));
+		for (int i = 0; i < rootMoves.size(); i++) {
+			moveOrderer.next(rootMoves, 0, i);
+		}
+	}//end of orderRootMoves method
+
+	/**
+	 * Returns if the search has to stop because it ran out of time or nodes. Called by the workers. The
+	 * first depth is never stopped.
+	 * @return boolean - true if the search has to stop
+	 */
+	boolean checkLimits() {
+		if (!stopped && completedDepth > 0
+				&& ((timeLimit > 0 && System.nanoTime() - stopTime >= 0) || (nodeLimit > 0 && getNodes() >= nodeLimit))) {
+			stopped = true;
+		}
+		return stopped;
+	}//end of checkLimits method
+
+	/**
+	 * Sets the most time iterativeSearch can take
+	 * @param timeLimit (long) - the time in milliseconds, or 0 for no limit
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}//end of setTimeLimit method
+
+	/**
+	 * Sets the most positions iterativeSearch can look at, counting the positions of every thread
+	 * @param nodeLimit (long) - the number of positions, or 0 for no limit
+	 */
+	public void setNodeLimit(long nodeLimit) {
+		this.nodeLimit = nodeLimit;
+	}//end of setNodeLimit method
+
+	/**
+	 * Turns null move pruning on or off for every worker. It is on when the search is made.
+	 * @param nullMovePruning (boolean) - true to prune with null moves
+	 */
+	public void setNullMovePruning(boolean nullMovePruning) {
+		this.nullMovePruning = nullMovePruning;
+	}//end of setNullMovePruning method
+
+	/**
+	 * Turns late move reductions on or off for every worker. They are on when the search is made.
+	 * @param lateMoveReductions (boolean) - true to search late quiet moves less deep
+	 */
+	public void setLateMoveReductions(boolean lateMoveReductions) {
+		this.lateMoveReductions = lateMoveReductions;
+	}//end of setLateMoveReductions method
+
+	/**
+	 * Turns futility pruning and razoring on or off for every worker. They are on when the search is made.
+	 * @param futilityPruning (boolean) - true to prune quiet moves near the leaves
+	 */
+	public void setFutilityPruning(boolean futilityPruning) {
+		this.futilityPruning = futilityPruning;
+	}//end of setFutilityPruning method
+
+	/**
+	 * Returns the best move found by the last search
+	 * @return int - the packed move, or PackedMove.NONE if there are no legal moves
+	 */
+	public int getBestMove() {
+		return bestMove;
+	}//end of getBestMove method
+
+	/**
+	 * Returns the deepest depth the last search finished
+	 * @return int - the depth of getBestMove()
+	 */
+	public int getCompletedDepth() {
+		return completedDepth;
+	}//end of getCompletedDepth method
+
+	/**
+	 * Returns the number of positions looked at by the last search, by all of its threads
+	 * @return long - the number of positions
+	 */
+	public long getNodes() {
+		long nodes = 0;
+		for (Search search : workers) {
+			nodes += search.getNodes();
+		}
+		return nodes;
+	}//end of getNodes method
+
+	/**
+	 * Returns the number of positions every thread looked at in the last search
+	 * @return long[] - the positions of every worker, in the order the workers started
+	 */
+	public long[] getThreadNodes() {
+		long[] nodes = new long[workers.size()];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = workers.get(i).getNodes();
+		}
+		return nodes;
+	}//end of getThreadNodes method
+
+	/**
+	 * The search of every root move to one depth. The first move is searched before the others are
+	 * split across the pool.
+	 *
+	 * @author frankliu197
+	 */
+	private final class RootSearch extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		/** The number of plies to search */
+		private final int depth;
+
+		/** The best value found so far, which the root moves that start later have to beat */
+		private final AtomicInteger alpha = new AtomicInteger(-Search.INFINITY);
+
+		/** The best root move found */
+		private int bestMove = PackedMove.NONE;
+
+		/**
+		 * Creates the search of one depth
+		 * @param depth (int) - the number of plies to search
+		 */
+		private RootSearch(int depth) {
+			this.depth = depth;
+		}//end of constructor
+
+		@Override
+		/**
+		 * Searches the first root move, then the others at the same time
+		 * @return Integer - the value of the position for the mover
+		 */
+		protected Integer compute() {
+			int firstMove = rootMoves.get(0);
+			int best = worker.get().searchRootMove(firstMove, depth, -Search.INFINITY, Search.INFINITY);
+			if (stopped) {
+				return best;
+			}
+			alpha.set(best);
+			bestMove = firstMove;
+
+			ArrayList<RootMove> brothers = new ArrayList<>(rootMoves.size() - 1);
+			for (int i = 1; i < rootMoves.size(); i++) {
+				brothers.add(new RootMove(this, rootMoves.get(i)));
+			}
+			invokeAll(brothers);
+
+			// the moves that did not beat alpha when they started only return a bound, so they are left out
+			for (RootMove brother : brothers) {
+				int value = brother.join();
+				if (brother.better && value > best) {
+					best = value;
+					bestMove = brother.move;
+				}
+			}
+			return best;
+		}//end of compute method
+	}//end of RootSearch class
+
+	/**
+	 * The search of one root move after the first. It is searched against the best value found when it
+	 * starts.
+	 *
+	 * @author frankliu197
+	 */
+	private final class RootMove extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		/** The search of the depth this move is part of */
+		private final RootSearch rootSearch;
+
+		/** The packed root move */
+		private final int move;
+
+		/** True if the move beat the alpha it started with, so its value is exact */
+		private boolean better;
+
+		/**
+		 * Creates the task for a root move
+		 * @param rootSearch (RootSearch) - the search of the depth
+		 * @param move (int) - the packed root move
+		 */
+		private RootMove(RootSearch rootSearch, int move) {
+			this.rootSearch = rootSearch;
+			this.move = move;
+		}//end of constructor
+
+		@Override
+		/**
+		 * Searches the root move with a null window, which only proves it is not better than alpha, and
+		 * again with the full window if it is better
+		 * @return Integer - the value of the move for the mover, or a value at or below alpha if it is not
+		 *         better than alpha
+		 */
+		protected Integer compute() {
+			int alpha = rootSearch.alpha.get();
+			Search search = worker.get();
+			int value = search.searchRootMove(move, rootSearch.depth, alpha, alpha + 1);
+			if (!stopped && value > alpha) {
+				value = search.searchRootMove(move, rootSearch.depth, alpha, Search.INFINITY);
+			}
+			if (!stopped && value > alpha) {
+				better = true;
+				rootSearch.alpha.accumulateAndGet(value, Math::max);
+			}
+			return value;
+		}//end of compute method
+	}//end of RootMove class
+}//end of ParallelSearch class
@@ -0,0 +1,831 @@
+package ai;
+
+import static pieces.PieceType.*;
+
+import java.util.Arrays;
+
+import chessgame.ChessBoard;
+import chessgame.MoveList;
+import chessgame.PackedMove;
+import pieces.Turn;
+
+/**
+ * A depth first alpha-beta search (in the negamax form, where every value is from the side to move). It
+ * walks a copy of the chessBoard with makeMove and unmakeMove and keeps one MoveList for every ply, so no
+ * tree is kept in memory and the memory used does not grow with the depth. A move is only cut off when
+ * it is proven that it can not change the result, so the result is the same as looking at every move. <br>
+ * <br>
+ * Values are in centipawns (see Evaluator). A checkmate is worth MATE minus the number of plies to it,
+ * so the search prefers the fastest mate and the slowest loss. <br>
+ * <br>
+ * At the last ply the search does not stop in the middle of a trade. A quiescence search keeps playing
+ * takes and promotions until the position is quiet, so a piece that hangs or can be taken back is
+ * seen by the search instead of the evaluation. <br>
+ * <br>
+ * Three kinds of pruning let the search look deeper at the cost of a small risk of missing a move.
+ * Each can be turned off: <br>
+ * <b>null move</b> - if the mover is still above beta after passing the turn, it is cut off. This is
+ * not done without pieces other than pawns, where passing could be better than any move (zugzwang) <br>
+ * <b>late move reductions</b> - quiet moves ordered late are searched less deep, and searched again if
+ * they turn out to be good <br>
+ * <b>futility pruning and razoring</b> - near the leaves, quiet moves are not searched if the position
+ * is so far below alpha that they can not get back up to it, and razoring drops into the quiescence
+ * search <br>
+ * <br>
+ * iterativeSearch searches depth 1, then 2, and so on until the time or node limit runs out. The
+ * result of the last depth that was finished is kept, so the search can be stopped at any time, and
+ * the best move of every depth is searched first at the next one. <br>
+ * <br>
+ * The search is a principal variation search (PVS): the first move of every position is searched with
+ * the full window, and the others only with a null window that proves they are not better, which is
+ * cheaper. A move that turns out better is searched again with the full window. From depth
+ * ASPIRATION_DEPTH on, iterativeSearch also starts every depth with a narrow (aspiration) window around
+ * the value of the depth before, and widens it if the value falls outside. <br>
+ * <br>
+ * The best line (the principal variation) is kept in a triangular table, where every ply holds the
+ * best line from that ply on. The line of the last finished depth is searched first at the next depth
+ * and can be shown with getPrincipalVariation. <br>
+ * <br>
+ * With more than one thread (see setThreads) iterativeSearch is a Lazy SMP search: helper threads
+ * search the same position at the same time, half of them one ply deeper, and share the
+ * TranspositionTable. The helpers fill the table with positions the main thread then does not have to
+ * search again, and the move of whichever thread finished the deepest depth is played. <br>
+ * <br>
+ * Every searched position is saved in a TranspositionTable. When a position comes up again (from
+ * another order of moves, or from an earlier depth or move) its saved value is used if it was searched
+ * deep enough, and otherwise its saved best move is searched first. The table can be shared by searches
+ * on other threads.
+ *
+ * @author frankliu197
+ */
+public class Search {
+	/** The value of checkmating on the current ply */
+	public static final int MATE = 100000;
+
+	/** A value bigger than any value the search can return */
+	public static final int INFINITY = 1000000;
+
+	/** The value of a draw */
+	public static final int DRAW = 0;
+
+	/** The most plies the search goes down */
+	public static final int MAX_PLY = 64;
+
+	/** The number of moves without a pawn move or a take that is a draw (50 moves each) */
+	private static final int FIFTY_MOVE_RULE = 100;
+
+	/** The least depth left at which a null move is tried */
+	private static final int NULL_MOVE_DEPTH = 3;
+
+	/** The least depth left at which late moves are reduced */
+	private static final int REDUCTION_DEPTH = 3;
+
+	/** The number of moves that are always searched to the full depth */
+	private static final int FULL_DEPTH_MOVES = 3;
+
+	/** The most depth left at which futility pruning is done */
+	private static final int FUTILITY_DEPTH = 3;
+
+	/** The most depth left at which razoring is done */
+	private static final int RAZOR_DEPTH = 2;
+
+	/** How far below alpha the position has to be, for every ply left, for a quiet move to be pruned */
+	private static final int FUTILITY_MARGIN = 150;
+
+	/** How far below alpha the position has to be, for every ply left, to drop into the quiescence search */
+	private static final int RAZOR_MARGIN = 300;
+
+	/** The first depth that is searched with an aspiration window */
+	private static final int ASPIRATION_DEPTH = 4;
+
+	/** The size of the first aspiration window on each side of the last value */
+	private static final int ASPIRATION_WINDOW = 50;
+
+	/** The aspiration window is opened all the way once it would be wider than this */
+	private static final int MAX_ASPIRATION_WINDOW = 1000;
+
+	/** A take is not searched at the horizon if it can not get the value up to alpha even with this margin */
+	private static final int DELTA_MARGIN = 200;
+
+	/** The limits are checked every time this many positions (plus 1) are looked at. Must be 2^n - 1 */
+	private static final int LIMIT_CHECK_INTERVAL = 1023;
+
+	/** The size of the TranspositionTable in megabytes when none is given in */
+	private static final int DEFAULT_TABLE_SIZE = 4;
+
+	/** The copy of the chessBoard that is searched */
+	private final ChessBoard chessBoard;
+
+	/** The table of searched positions */
+	private final TranspositionTable table;
+
+	/** One MoveList for every ply */
+	private final MoveList[] moveLists = MoveList.createStack(MAX_PLY);
+
+	/** The order moves are tried in */
+	private final MoveOrderer moveOrderer = new MoveOrderer();
+
+	/** The best move found by the last search */
+	private int bestMove = PackedMove.NONE;
+
+	/**
+	 * The root move that failed high in the depth being searched, which is searched first when the
+	 * aspiration window is opened. It is kept apart from bestMove, which only changes with the
+	 * principalVariation when a depth is finished.
+	 */
+	private int failHighMove = PackedMove.NONE;
+
+	/** The best line found by the last depth that was finished, best move first */
+	private int[] principalVariation = new int[0];
+
+	/** The best line from every ply, in pvTable[ply][ply] to pvTable[ply][pvLength[ply] - 1] */
+	private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+	private final int[] pvLength = new int[MAX_PLY + 1];
+
+	/** True while the search is still on the principalVariation, so its moves are searched first */
+	private boolean followPv;
+
+	/** The number of positions looked at by the last search */
+	private long nodes;
+
+	/** The most time the search can take in milliseconds, or 0 for no limit */
+	private long timeLimit;
+
+	/** The most positions the search can look at, or 0 for no limit */
+	private long nodeLimit;
+
+	/** The System.nanoTime() at which the search has to stop */
+	private long stopTime;
+
+	/** True if the search ran out of time or nodes and the depth being searched has to be thrown away */
+	private boolean stopped;
+
+	/** The deepest depth the last search finished */
+	private int completedDepth;
+
+	/** The value of the position from the deepest depth the last search finished */
+	private int rootValue;
+
+	/** The number of threads iterativeSearch uses, including the calling thread */
+	private int threads = 1;
+
+	/** The search this search is a helper of, or null if it is not a helper */
+	private Search main;
+
+	/** Set by the main search when it is done, so its helpers stop */
+	private volatile boolean finished;
+
+	/** Set by stop() from another thread */
+	private volatile boolean stopRequested;
+
+	/** The ParallelSearch this search is a worker of, or null if it is not a worker */
+	private ParallelSearch parallelSearch;
+
+	/** True for every ply that was reached by a null move, so two null moves are never played in a row */
+	private final boolean[] nullMoves = new boolean[MAX_PLY + 1];
+
+	/* The pruning that is turned on (see setNullMovePruning, setLateMoveReductions and setFutilityPruning) */
+	private boolean nullMovePruning = true;
+	private boolean lateMoveReductions = true;
+	private boolean futilityPruning = true;
+
+	/**
+	 * Creates a search of the position on the chessBoard. The chessBoard is copied, so it is not changed
+	 * by the search.
+	 * @param chessBoard (ChessBoard) - the position to search
+	 */
+	public Search(ChessBoard chessBoard) {
+		this(chessBoard, new TranspositionTable(DEFAULT_TABLE_SIZE));
+	}//end of constructor
+
+	/**
+	 * Creates a search of the position on the chessBoard that saves the positions it searches in the
+	 * table given in. The chessBoard is copied, so it is not changed by the search.
+	 * @param chessBoard (ChessBoard) - the position to search
+	 * @param table (TranspositionTable) - the table to use, which can be shared with other searches
+	 */
+	public Search(ChessBoard chessBoard, TranspositionTable table) {
+		this.chessBoard = new ChessBoard(chessBoard);
+		this.table = table;
+	}//end of constructor
+
+	/**
+	 * Searches every move of the mover to the depth given in and returns the value of the best one. Use
+	 * getBestMove() to get the move.
+	 * @param depth (int) - the number of plies to search, at least 1
+	 * @return int - the value of the position for the mover
+	 */
+	public int search(int depth) {
+		nodes = 0;
+		stopped = false;
+		bestMove = PackedMove.NONE;
+		failHighMove = PackedMove.NONE;
+		principalVariation = new int[0];
+		completedDepth = 0;
+		moveOrderer.newSearch();
+		rootValue = searchRoot(depth, -INFINITY, INFINITY);
+		completedDepth = depth;
+		return rootValue;
+	}//end of search method
+
+	/**
+	 * Searches one depth after another, up to maxDepth, until the time or node limit runs out (see
+	 * setTimeLimit and setNodeLimit). The first depth is always finished, so there is always a move. Use
+	 * getBestMove() to get the move and getCompletedDepth() for the depth it came from.
+	 * @param maxDepth (int) - the deepest depth to search, at most MAX_PLY
+	 * @return int - the value of the position for the mover, from the last depth that was finished
+	 */
+	public int iterativeSearch(int maxDepth) {
+		stopTime = System.nanoTime() + timeLimit * 1000000;
+		finished = false;
+
+		Search[] helpers = new Search[threads - 1];
+		Thread[] helperThreads = new Thread[threads - 1];
+		for (int i = 0; i < helpers.length; i++) {
+			Search helper = new Search(chessBoard, table);
+			helper.main = this;
+			helper.nullMovePruning = nullMovePruning;
+			helper.lateMoveReductions = lateMoveReductions;
+			helper.futilityPruning = futilityPruning;
+			helpers[i] = helper;
+			// every other helper starts one ply deeper, so the threads do not all search the same depth
+			int firstDepth = 1 + (i + 1) % 2;
+			helperThreads[i] = new Thread(new Runnable() {
+				public void run() {
+					helper.iterate(firstDepth, maxDepth);
+				}
+			}, "Search helper " + (i + 1));
+			helperThreads[i].setDaemon(true);
+			helperThreads[i].start();
+		}
+
+		iterate(1, maxDepth);
+
+		finished = true;
+		for (int i = 0; i < helpers.length; i++) {
+			try {
+				helperThreads[i].join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			Search helper = helpers[i];
+			nodes += helper.nodes;
+			if (helper.completedDepth > completedDepth && helper.bestMove != PackedMove.NONE) {
+				completedDepth = helper.completedDepth;
+				bestMove = helper.bestMove;
+				principalVariation = helper.principalVariation;
+				rootValue = helper.rootValue;
+			}
+		}
+		return rootValue;
+	}//end of iterativeSearch method
+
+	/**
+	 * Searches one depth after another from firstDepth up to maxDepth, until the search is stopped
+	 * @param firstDepth (int) - the first depth to search
+	 * @param maxDepth (int) - the deepest depth to search
+	 */
+	private void iterate(int firstDepth, int maxDepth) {
+		nodes = 0;
+		stopped = false;
+		bestMove = PackedMove.NONE;
+		failHighMove = PackedMove.NONE;
+		principalVariation = new int[0];
+		completedDepth = 0;
+		rootValue = DRAW;
+		moveOrderer.newSearch();
+
+		for (int depth = firstDepth; depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+			int depthValue = aspirationSearch(depth);
+			if (stopped) {
+				break;
+			}
+			rootValue = depthValue;
+			completedDepth = depth;
+
+			// a mate can not be improved on by looking deeper
+			if (isMate(rootValue) || bestMove == PackedMove.NONE) {
+				break;
+			}
+		}
+	}//end of iterate method
+
+	/**
+	 * Searches the root to the depth given in, in a window around the value of the depth before. If the
+	 * value falls outside the window, the window is made wider on that side and the depth is searched
+	 * again.
+	 * @param depth (int) - the number of plies to search, at least 1
+	 * @return int - the value of the position for the mover
+	 */
+	private int aspirationSearch(int depth) {
+		if (depth < ASPIRATION_DEPTH || completedDepth == 0 || isMate(rootValue)) {
+			return searchRoot(depth, -INFINITY, INFINITY);
+		}
+
+		int window = ASPIRATION_WINDOW;
+		int alpha = rootValue - window;
+		int beta = rootValue + window;
+		while (true) {
+			int value = searchRoot(depth, alpha, beta);
+			if (stopped || (value > alpha && value < beta)) {
+				return value;
+			}
+			window *= 4;
+			if (value <= alpha) {
+				alpha = window > MAX_ASPIRATION_WINDOW ? -INFINITY : value - window;
+			} else {
+				beta = window > MAX_ASPIRATION_WINDOW ? INFINITY : value + window;
+			}
+		}
+	}//end of aspirationSearch method
+
+	/**
+	 * Searches every move of the mover to the depth given in. If the search is not stopped and the value
+	 * is inside the window, bestMove and the principalVariation are set. The bestMove and the
+	 * principalVariation from the last depth are searched first.
+	 * @param depth (int) - the number of plies to search, at least 1
+	 * @param alpha (int) - the lowest value of the window
+	 * @param beta (int) - the highest value of the window
+	 * @return int - the value of the position for the mover, at most alpha if no move beat alpha and at
+	 *         least beta if a move reached beta
+	 */
+	private int searchRoot(int depth, int alpha, int beta) {
+		pvLength[0] = 0;
+		MoveList moves = moveLists[0];
+		moves.clear();
+		chessBoard.generateLegalMoves(moves);
+		if (moves.isEmpty()) {
+			return chessBoard.inCheck() ? -MATE : DRAW;
+		}
+		int firstMove = failHighMove != PackedMove.NONE ? failHighMove : bestMove;
+		if (firstMove == PackedMove.NONE) {
+			firstMove = TranspositionTable.getMove(table.probe(chessBoard.getHash()));
+		}
+		moveOrderer.score(moves, 0, firstMove);
+		// the rest of the principalVariation only follows from its own first move
+		followPv = principalVariation.length > 1 && principalVariation[0] == firstMove;
+
+		int alphaOrig = alpha;
+		int best = PackedMove.NONE;
+		for (int i = 0; i < moves.size(); i++) {
+			int move = moveOrderer.next(moves, 0, i);
+			chessBoard.makeMove(move);
+			int value;
+			if (i == 0) {
+				value = -negamax(depth - 1, -beta, -alpha, 1);
+				followPv = false;
+			} else {
+				value = -negamax(depth - 1, -alpha - 1, -alpha, 1);
+				if (value > alpha && value < beta) {
+					value = -negamax(depth - 1, -beta, -alpha, 1);
+				}
+			}
+			chessBoard.unmakeMove();
+			if (stopped) {
+				return alpha;
+			}
+
+			if (value > alpha) {
+				alpha = value;
+				best = move;
+				updatePv(0, move);
+				if (alpha >= beta) {
+					failHighMove = best;
+					return alpha;
+				}
+			}
+		}
+
+		if (alpha > alphaOrig) {
+			bestMove = best;
+			failHighMove = PackedMove.NONE;
+			principalVariation = Arrays.copyOf(pvTable[0], pvLength[0]);
+			table.store(chessBoard.getHash(), best, alpha, depth, TranspositionTable.EXACT);
+		}
+		return alpha;
+	}//end of searchRoot method
+
+	/**
+	 * Makes the best line from a ply the move followed by the best line from the next ply
+	 * @param ply (int) - the ply of the move
+	 * @param move (int) - the packed move that is best at the ply
+	 */
+	private void updatePv(int ply, int move) {
+		int[] line = pvTable[ply];
+		line[ply] = move;
+		System.arraycopy(pvTable[ply + 1], ply + 1, line, ply + 1, pvLength[ply + 1] - ply - 1);
+		pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+	}//end of updatePv method
+
+	/**
+	 * Makes this search a worker of a ParallelSearch, which searches root moves with searchRootMove
+	 * @param parallelSearch (ParallelSearch) - the search that decides when the worker stops
+	 */
+	void startWorker(ParallelSearch parallelSearch) {
+		this.parallelSearch = parallelSearch;
+		nodes = 0;
+		stopped = false;
+		moveOrderer.newSearch();
+	}//end of startWorker method
+
+	/**
+	 * Searches one move of the root position for a ParallelSearch. Values at or below alpha are only an
+	 * upper bound.
+	 * @param move (int) - a legal packed move of the root position
+	 * @param depth (int) - the number of plies to search, including the move
+	 * @param alpha (int) - the value the mover is already sure to get
+	 * @param beta (int) - the value the opponent is already sure to hold the mover to
+	 * @return int - the value of the move for the mover
+	 */
+	int searchRootMove(int move, int depth, int alpha, int beta) {
+		followPv = false;
+		chessBoard.makeMove(move);
+		int value = -negamax(depth - 1, -beta, -alpha, 1);
+		chessBoard.unmakeMove();
+		return value;
+	}//end of searchRootMove method
+
+	/**
+	 * Stops the search if it ran out of time or nodes. The first depth is never stopped. A helper stops
+	 * when its main search is done, and a worker when its ParallelSearch runs out of time or nodes.
+	 */
+	private void checkLimits() {
+		if (main != null) {
+			stopped = main.finished;
+			return;
+		}
+		if (parallelSearch != null) {
+			stopped = parallelSearch.checkLimits();
+			return;
+		}
+		if (completedDepth == 0) {
+			return;
+		}
+		if (stopRequested || (timeLimit > 0 && System.nanoTime() - stopTime >= 0) || (nodeLimit > 0 && nodes >= nodeLimit)) {
+			stopped = true;
+		}
+	}//end of checkLimits method
+
+	/**
+	 * Returns the value of the position for the mover. Values at or below alpha are only an upper
+	 * bound, and values at or above beta are only a lower bound.
+	 * @param depth (int) - the number of plies left to search
+	 * @param alpha (int) - the value the mover is already sure to get
+	 * @param beta (int) - the value the opponent is already sure to hold the mover to
+	 * @param ply (int) - the number of plies from the root
+	 * @return int - the value of the position
+	 */
+	private int negamax(int depth, int alpha, int beta, int ply) {
+		pvLength[ply] = ply;
+		if (depth <= 0) {
+			return quiescence(alpha, beta, ply);
+		}
+		if ((++nodes & LIMIT_CHECK_INTERVAL) == 0) {
+			checkLimits();
+		}
+		if (stopped) {
+			return DRAW;
+		}
+		if (chessBoard.isRepeated(2) || chessBoard.getHalfmoveClock() >= FIFTY_MOVE_RULE) {
+			return DRAW;
+		}
+		if (ply >= MAX_PLY) {
+			return Evaluator.evaluate(chessBoard);
+		}
+
+		// use the saved value if it was searched deep enough and is inside the bounds
+		long hash = chessBoard.getHash();
+		long entry = table.probe(hash);
+		int hashMove = TranspositionTable.getMove(entry);
+		if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) >= depth) {
+			int value = fromTable(TranspositionTable.getValue(entry), ply);
+			int bound = TranspositionTable.getBound(entry);
+			if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && value >= beta)
+					|| (bound == TranspositionTable.UPPER && value <= alpha)) {
+				return value;
+			}
+		}
+
+		boolean inCheck = chessBoard.inCheck();
+		boolean mateBounds = isMate(alpha) || isMate(beta);
+		int staticValue = inCheck ? -INFINITY : Evaluator.evaluate(chessBoard);
+
+		// null move: if passing is still too good for the opponent, a real move will be too
+		if (nullMovePruning && !inCheck && !mateBounds && !nullMoves[ply] && depth >= NULL_MOVE_DEPTH
+				&& staticValue >= beta && hasPieces()) {
+			int reduction = 2 + depth / 6;
+			boolean following = followPv;
+			followPv = false;
+			chessBoard.makeNullMove();
+			nullMoves[ply + 1] = true;
+			int value = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1);
+			nullMoves[ply + 1] = false;
+			chessBoard.unmakeNullMove();
+			followPv = following;
+			if (stopped) {
+				return DRAW;
+			}
+			if (value >= beta) {
+				table.store(hash, PackedMove.NONE, toTable(beta, ply), depth, TranspositionTable.LOWER);
+				return beta;
+			}
+		}
+
+		// razoring: far below alpha near the leaves, only the takes can save the position
+		if (futilityPruning && !inCheck && !mateBounds && depth <= RAZOR_DEPTH
+				&& staticValue + RAZOR_MARGIN * depth <= alpha) {
+			int value = quiescence(alpha, beta, ply);
+			if (value <= alpha) {
+				return alpha;
+			}
+		}
+		boolean futile = futilityPruning && !inCheck && !mateBounds && depth <= FUTILITY_DEPTH
+				&& staticValue + FUTILITY_MARGIN * depth <= alpha;
+
+		MoveList moves = moveLists[ply];
+		moves.clear();
+		chessBoard.generateLegalMoves(moves);
+		if (moves.isEmpty()) {
+			return inCheck ? -MATE + ply : DRAW;
+		}
+		// on the principal variation of the last depth, its move is searched first
+		int pvMove = followPv && ply < principalVariation.length ? principalVariation[ply] : PackedMove.NONE;
+		moveOrderer.score(moves, ply, pvMove != PackedMove.NONE ? pvMove : hashMove);
+
+		int bestMove = PackedMove.NONE;
+		int bound = TranspositionTable.UPPER;
+		for (int i = 0; i < moves.size(); i++) {
+			int move = moveOrderer.next(moves, ply, i);
+			boolean quiet = !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+
+			// futility pruning: a quiet move that does not give check can not get back up to alpha
+			if (futile && i > 0 && quiet && !chessBoard.givesCheck(move)) {
+				continue;
+			}
+
+			chessBoard.makeMove(move);
+			int value;
+			if (i == 0) {
+				value = -negamax(depth - 1, -beta, -alpha, ply + 1);
+				followPv = false;
+			} else {
+				// a late quiet move is searched less deep, and again at the full depth if it beats alpha
+				int reduction = 0;
+				if (lateMoveReductions && i >= FULL_DEPTH_MOVES && depth >= REDUCTION_DEPTH && quiet && !inCheck
+						&& !chessBoard.inCheck()) {
+					reduction = i >= 2 * FULL_DEPTH_MOVES + 2 && depth >= 2 * REDUCTION_DEPTH ? 2 : 1;
+				}
+				// the other moves only have to be proven no better than alpha, with a null window
+				value = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+				if (value > alpha && reduction > 0) {
+					value = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+				}
+				if (value > alpha && value < beta) {
+					value = -negamax(depth - 1, -beta, -alpha, ply + 1);
+				}
+			}
+			chessBoard.unmakeMove();
+			if (stopped) {
+				return DRAW;
+			}
+
+			if (value >= beta) {
+				// the opponent will not allow this position, so the other moves do not matter
+				moveOrderer.cutOff(move, ply, depth);
+				table.store(hash, move, toTable(beta, ply), depth, TranspositionTable.LOWER);
+				return beta;
+			}
+			if (value > alpha) {
+				alpha = value;
+				bestMove = move;
+				bound = TranspositionTable.EXACT;
+				updatePv(ply, move);
+			}
+		}
+		table.store(hash, bestMove, toTable(alpha, ply), depth, bound);
+		return alpha;
+	}//end of negamax method
+
+	/**
+	 * Returns if the mover has a piece other than pawns and the king. Without one, passing the turn can
+	 * be better than any move, so the null move can not be trusted.
+	 * @return boolean - true if the mover has a knight, bishop, rook or queen
+	 */
+	private boolean hasPieces() {
+		Turn turn = chessBoard.getTurn();
+		return (chessBoard.getBitBoard(KNIGHT, turn) | chessBoard.getBitBoard(BISHOP, turn)
+				| chessBoard.getBitBoard(ROOK, turn) | chessBoard.getBitBoard(QUEEN, turn)) != 0;
+	}//end of hasPieces method
+
+	/**
+	 * Returns the value of the position for the mover once the takes are played out. The mover can
+	 * stand pat (keep the value of the position without taking), so only takes and promotions that do
+	 * better are searched. In check there is no standing pat, so every move is searched.
+	 * @param alpha (int) - the value the mover is already sure to get
+	 * @param beta (int) - the value the opponent is already sure to hold the mover to
+	 * @param ply (int) - the number of plies from the root
+	 * @return int - the value of the position
+	 */
+	private int quiescence(int alpha, int beta, int ply) {
+		pvLength[ply] = ply;
+		if ((++nodes & LIMIT_CHECK_INTERVAL) == 0) {
+			checkLimits();
+		}
+		if (stopped) {
+			return DRAW;
+		}
+		if (chessBoard.isRepeated(2) || chessBoard.getHalfmoveClock() >= FIFTY_MOVE_RULE) {
+			return DRAW;
+		}
+		if (ply >= MAX_PLY) {
+			return Evaluator.evaluate(chessBoard);
+		}
+
+		MoveList moves = moveLists[ply];
+		moves.clear();
+		boolean inCheck = chessBoard.inCheck();
+		int standPat = -INFINITY;
+		if (inCheck) {
+			chessBoard.generateLegalMoves(moves);
+			if (moves.isEmpty()) {
+				return -MATE + ply;
+			}
+		} else {
+			standPat = Evaluator.evaluate(chessBoard);
+			if (standPat >= beta) {
+				return beta;
+			}
+			if (standPat > alpha) {
+				alpha = standPat;
+			}
+			chessBoard.generateLegalCaptures(moves);
+		}
+		moveOrderer.score(moves, ply, PackedMove.NONE);
+
+		for (int i = 0; i < moves.size(); i++) {
+			int move = moveOrderer.next(moves, ply, i);
+			// delta pruning: the piece taken is not worth enough to get back to alpha
+			if (!inCheck && !PackedMove.isPromotion(move)
+					&& standPat + Evaluator.PIECE_VALUES[PackedMove.getTaken(move) / 2] + DELTA_MARGIN <= alpha) {
+				continue;
+			}
+
+			chessBoard.makeMove(move);
+			int value = -quiescence(-beta, -alpha, ply + 1);
+			chessBoard.unmakeMove();
+			if (stopped) {
+				return DRAW;
+			}
+
+			if (value >= beta) {
+				return beta;
+			}
+			if (value > alpha) {
+				alpha = value;
+			}
+		}
+		return alpha;
+	}//end of quiescence method
+
+	/**
+	 * Changes a value to be saved in the table. A mate value is made relative to the position instead of
+	 * the root, since the position can come up at another ply.
+	 * @param value (int) - the value from the root
+	 * @param ply (int) - the ply of the position
+	 * @return int - the value to save
+	 */
+	private static int toTable(int value, int ply) {
+		if (value > MATE - MAX_PLY) {
+			return value + ply;
+		} else if (value < -MATE + MAX_PLY) {
+			return value - ply;
+		}
+		return value;
+	}//end of toTable method
+
+	/**
+	 * Changes a value from the table back into a value from the root (see toTable)
+	 * @param value (int) - the saved value
+	 * @param ply (int) - the ply of the position
+	 * @return int - the value from the root
+	 */
+	private static int fromTable(int value, int ply) {
+		if (value > MATE - MAX_PLY) {
+			return value - ply;
+		} else if (value < -MATE + MAX_PLY) {
+			return value + ply;
+		}
+		return value;
+	}//end of fromTable method
+
+	/**
+	 * Sets the most time iterativeSearch can take
+	 * @param timeLimit (long) - the time in milliseconds, or 0 for no limit
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}//end of setTimeLimit method
+
+	/**
+	 * Sets the most positions iterativeSearch can look at
+	 * @param nodeLimit (long) - the number of positions, or 0 for no limit
+	 */
+	public void setNodeLimit(long nodeLimit) {
+		this.nodeLimit = nodeLimit;
+	}//end of setNodeLimit method
+
+	/**
+	 * Stops iterativeSearch from another thread, as if it ran out of time. The first depth is still
+	 * finished, so there is always a move. A Search that was stopped stays stopped and can not be used
+	 * again.
+	 */
+	public void stop() {
+		stopRequested = true;
+	}//end of stop method
+
+	/**
+	 * Turns null move pruning on or off, for every thread of the search. It is on when the search is made.
+	 * @param nullMovePruning (boolean) - true to prune with null moves
+	 */
+	public void setNullMovePruning(boolean nullMovePruning) {
+		this.nullMovePruning = nullMovePruning;
+	}//end of setNullMovePruning method
+
+	/**
+	 * Turns late move reductions on or off, for every thread of the search. They are on when the search
+	 * is made.
+	 * @param lateMoveReductions (boolean) - true to search late quiet moves less deep
+	 */
+	public void setLateMoveReductions(boolean lateMoveReductions) {
+		this.lateMoveReductions = lateMoveReductions;
+	}//end of setLateMoveReductions method
+
+	/**
+	 * Turns futility pruning and razoring on or off, for every thread of the search. They are on when the
+	 * search is made.
+	 * @param futilityPruning (boolean) - true to prune quiet moves near the leaves
+	 */
+	public void setFutilityPruning(boolean futilityPruning) {
+		this.futilityPruning = futilityPruning;
+	}//end of setFutilityPruning method
+
+	/**
+	 * Sets the number of threads iterativeSearch uses. Each extra thread searches its own copy of the
+	 * chessBoard and shares the table. The node limit only counts the positions of the calling thread,
+	 * so more threads look at more positions in the same time.
+	 * @param threads (int) - the number of threads, at least 1
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(threads, 1);
+	}//end of setThreads method
+
+	/**
+	 * Returns the table of searched positions, whose counters show how well it is working
+	 * @return TranspositionTable - the table
+	 */
+	public TranspositionTable getTable() {
+		return table;
+	}//end of getTable method
+
+	/**
+	 * Returns the best line of moves found by the last search, for both sides, starting with
+	 * getBestMove(). The line can be shorter than the depth, since it stops where a saved value was used.
+	 * @return int[] - the packed moves of the line
+	 */
+	public int[] getPrincipalVariation() {
+		return principalVariation.clone();
+	}//end of getPrincipalVariation method
+
+	/**
+	 * Returns the deepest depth the last search finished
+	 * @return int - the depth of getBestMove()
+	 */
+	public int getCompletedDepth() {
+		return completedDepth;
+	}//end of getCompletedDepth method
+
+	/**
+	 * Returns the best move found by the last search
+	 * @return int - the packed move, or PackedMove.NONE if the mover has no moves
+	 */
+	public int getBestMove() {
+		return bestMove;
+	}//end of getBestMove method
+
+	/**
+	 * Returns the number of positions looked at by the last search, by all of its threads
+	 * @return long - the number of positions
+	 */
+	public long getNodes() {
+		return nodes;
+	}//end of getNodes method
+
+	/**
+	 * Returns if a value is a checkmate for one of the sides
+	 * @param value (int) - a value returned by the search
+	 * @return boolean - true if the value is a checkmate
+	 */
+	public static boolean isMate(int value) {
+		return Math.abs(value) > MATE - MAX_PLY;
+	}//end of isMate method
+}//end of Search class
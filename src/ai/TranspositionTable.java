@@ -0,0 +1,212 @@
+package ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size table of searched positions, found by their Zobrist hash (see ChessBoard.getHash()). Every
+ * entry keeps the depth a position was searched to, its value, if the value is exact or only a bound,
+ * and the best move. The table is kept between searches, so positions that were already searched (from
+ * another order of moves, or on the last move) do not have to be searched again. <br>
+ * <br>
+ * Any number of search threads can share one table without locks. An entry is two longs: the data, and
+ * the hash XORed with the data. If two threads write to an entry at the same time, or a write is read
+ * half done, the hash does not match anymore and the entry is treated as missing. <br>
+ * <br>
+ * The data of an entry is packed into a long (see getMove, getValue, getDepth and getBound). probe
+ * returns it, so an entry is read once and can not change while it is used.
+ *
+ * @author frankliu197
+ */
+public class TranspositionTable {
+	/** The bound of a value that is exact */
+	public static final int EXACT = 1;
+
+	/** The bound of a value that is at least the value (the search was cut off) */
+	public static final int LOWER = 2;
+
+	/** The bound of a value that is at most the value (no move was better than alpha) */
+	public static final int UPPER = 3;
+
+	/** The data probe returns when the position is not in the table */
+	public static final long NO_ENTRY = 0;
+
+	/** The size of an entry in bytes (two longs) */
+	private static final int ENTRY_BYTES = 16;
+
+	/* The places of the parts of the data. The move takes the lowest 26 bits */
+	private static final int MOVE_BITS = 26;
+	private static final int BOUND_SHIFT = 26;
+	private static final int DEPTH_SHIFT = 28;
+	private static final int VALUE_SHIFT = 35;
+	private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+	private static final long BOUND_MASK = 3;
+	private static final long DEPTH_MASK = 127;
+
+	/** Two longs for every entry: the hash XOR the data, then the data */
+	private final long[] entries;
+
+	/** The number of entries minus 1, used to find the entry of a hash */
+	private final int mask;
+
+	/* Counters for tuning the size of the table */
+	private final LongAdder probes = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+	private final LongAdder collisions = new LongAdder();
+
+	/**
+	 * Creates a table that uses at most the number of megabytes given in. The number of entries is the
+	 * biggest power of 2 that fits.
+	 * @param megabytes (int) - the size of the table in megabytes, at least 1
+	 */
+	public TranspositionTable(int megabytes) {
+		long bytes = Math.max(megabytes, 1) * 1024L * 1024L;
+		int size = Integer.highestOneBit((int) Math.min(bytes / ENTRY_BYTES, 1 << 29));
+		entries = new long[size * 2];
+		mask = size - 1;
+	}//end of constructor
+
+	/**
+	 * Returns the data of the position with the hash given in
+	 * @param hash (long) - the hash of the position
+	 * @return long - the data of the entry, or NO_ENTRY if the position is not in the table
+	 */
+	public long probe(long hash) {
+		probes.increment();
+		int index = index(hash);
+		long data = entries[index + 1];
+		if (data != NO_ENTRY && (entries[index] ^ data) == hash) {
+			hits.increment();
+			return data;
+		}
+		return NO_ENTRY;
+	}//end of probe method
+
+	/**
+	 * Saves a searched position. An entry of the same position is only replaced by a search that is at
+	 * least as deep, or that has an exact value. An entry of another position is always replaced.
+	 * @param hash (long) - the hash of the position
+	 * @param move (int) - the best packed move, or PackedMove.NONE
+	 * @param value (int) - the value of the position (mate values must already be made relative to the
+	 *            position, see Search)
+	 * @param depth (int) - the depth that was searched, 0 to 127
+	 * @param bound (int) - EXACT, LOWER or UPPER
+	 */
+	public void store(long hash, int move, int value, int depth, int bound) {
+		stores.increment();
+		int index = index(hash);
+		long oldData = entries[index + 1];
+		if (oldData != NO_ENTRY) {
+			if ((entries[index] ^ oldData) != hash) {
+				collisions.increment();
+			} else if (depth < getDepth(oldData) && bound != EXACT) {
+				return;
+			} else if (move == 0) {
+				// keep the best move that was found before
+				move = getMove(oldData);
+			}
+		}
+
+		long data = (move & MOVE_MASK) | ((long) bound << BOUND_SHIFT) | ((depth & DEPTH_MASK) << DEPTH_SHIFT)
+				| ((long) value << VALUE_SHIFT);
+		entries[index] = hash ^ data;
+		entries[index + 1] = data;
+	}//end of store method
+
+	/**
+	 * Empties the table and sets the counters back to 0
+	 */
+	public void clear() {
+		Arrays.fill(entries, 0);
+		probes.reset();
+		hits.reset();
+		stores.reset();
+		collisions.reset();
+	}//end of clear method
+
+	/**
+	 * Returns the index of the first long of the entry of a hash
+	 * @param hash (long) - the hash of a position
+	 * @return int - the index in entries
+	 */
+	private int index(long hash) {
+		return ((int) hash & mask) << 1;
+	}//end of index method
+
+	/**
+	 * Returns the best move of an entry
+	 * @param data (long) - the data returned by probe
+	 * @return int - the packed move, or PackedMove.NONE
+	 */
+	public static int getMove(long data) {
+		return (int) (data & MOVE_MASK);
+	}//end of getMove method
+
+	/**
+	 * Returns the value of an entry
+	 * @param data (long) - the data returned by probe
+	 * @return int - the value
+	 */
+	public static int getValue(long data) {
+		return (int) (data >> VALUE_SHIFT);
+	}//end of getValue method
+
+	/**
+	 * Returns the depth of an entry
+	 * @param data (long) - the data returned by probe
+	 * @return int - the depth the position was searched to
+	 */
+	public static int getDepth(long data) {
+		return (int) ((data >>> DEPTH_SHIFT) & DEPTH_MASK);
+	}//end of getDepth method
+
+	/**
+	 * Returns the bound of an entry
+	 * @param data (long) - the data returned by probe
+	 * @return int - EXACT, LOWER or UPPER
+	 */
+	public static int getBound(long data) {
+		return (int) ((data >>> BOUND_SHIFT) & BOUND_MASK);
+	}//end of getBound method
+
+	/**
+	 * Returns the number of entries in the table
+	 * @return int - the number of entries
+	 */
+	public int getSize() {
+		return mask + 1;
+	}//end of getSize method
+
+	/**
+	 * Returns the number of times probe was called since the table was made or cleared
+	 * @return long - the number of probes
+	 */
+	public long getProbes() {
+		return probes.sum();
+	}//end of getProbes method
+
+	/**
+	 * Returns the number of times probe found the position
+	 * @return long - the number of hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}//end of getHits method
+
+	/**
+	 * Returns the number of times store was called
+	 * @return long - the number of stores
+	 */
+	public long getStores() {
+		return stores.sum();
+	}//end of getStores method
+
+	/**
+	 * Returns the number of times store replaced the entry of another position
+	 * @return long - the number of collisions
+	 */
+	public long getCollisions() {
+		return collisions.sum();
+	}//end of getCollisions method
+}//end of TranspositionTable class
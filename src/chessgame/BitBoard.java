@@ -0,0 +1,134 @@
+package chessgame;
+
+/**
+ * This class contains the static helper methods used to work with bitboards. A bitboard is a long
+ * where every one of the 64 bits represents a square on the chessBoard. <br>
+ * The square (x, y) is stored in bit y * 8 + x, so a1 is bit 0, h1 is bit 7 and h8 is bit 63.
+ *
+ * @author frankliu197
+ */
+public final class BitBoard {
+	/** The number of squares on the chessBoard */
+	public static final int SQUARES = ChessBoard.LENGTH * ChessBoard.LENGTH;
+
+	/** A bitboard with no squares */
+	public static final long EMPTY = 0L;
+
+	/** The squares on the a file (x = 0) */
+	public static final long FILE_A = 0x0101010101010101L;
+
+	/** The squares on the h file (x = 7) */
+	public static final long FILE_H = FILE_A << 7;
+
+	/** The squares on the first row (y = 0) */
+	public static final long RANK_1 = 0xFFL;
+
+	/** The squares on the last row (y = 7) */
+	public static final long RANK_8 = RANK_1 << 56;
+
+	/**
+	 * This class cannot be created
+	 */
+	private BitBoard() {
+	}
+
+	/**
+	 * Returns the square index of the coordinates
+	 * @param x (int) - the x coordinate
+	 * @param y (int) - the y coordinate
+	 * @return int - the square index, from 0 to 63
+	 */
+	public static int square(int x, int y) {
+		return (y << 3) | x;
+	}//end of square method
+
+	/**
+	 * Returns the x coordinate of a square index
+	 * @param square (int) - the square index
+	 * @return int - the x coordinate
+	 */
+	public static int getX(int square) {
+		return square & 7;
+	}//end of getX method
+
+	/**
+	 * Returns the y coordinate of a square index
+	 * @param square (int) - the square index
+	 * @return int - the y coordinate
+	 */
+	public static int getY(int square) {
+		return square >>> 3;
+	}//end of getY method
+
+	/**
+	 * Returns a bitboard with only the square given in
+	 * @param square (int) - the square index
+	 * @return long - a bitboard with only that square
+	 */
+	public static long bit(int square) {
+		return 1L << square;
+	}//end of bit method
+
+	/**
+	 * Returns a bitboard with only the square on the coordinates x, y
+	 * @param x (int) - the x coordinate
+	 * @param y (int) - the y coordinate
+	 * @return long - a bitboard with only that square
+	 */
+	public static long bit(int x, int y) {
+		return 1L << square(x, y);
+	}//end of bit method
+
+	/**
+	 * Returns if the square is in the bitboard
+	 * @param bitBoard (long) - the bitboard to check
+	 * @param square (int) - the square index
+	 * @return boolean - true if the square is in the bitboard
+	 */
+	public static boolean contains(long bitBoard, int square) {
+		return (bitBoard & (1L << square)) != 0;
+	}//end of contains method
+
+	/**
+	 * Returns the lowest square in the bitboard. Use it with popLowest to iterate over a bitboard.
+	 * @param bitBoard (long) - a non empty bitboard
+	 * @return int - the square index of the lowest bit
+	 */
+	public static int lowest(long bitBoard) {
+		return Long.numberOfTrailingZeros(bitBoard);
+	}//end of lowest method
+
+	/**
+	 * Returns the bitboard with the lowest square removed
+	 * @param bitBoard (long) - the bitboard
+	 * @return long - the bitboard without its lowest square
+	 */
+	public static long popLowest(long bitBoard) {
+		return bitBoard & (bitBoard - 1);
+	}//end of popLowest method
+
+	/**
+	 * Returns the number of squares in the bitboard
+	 * @param bitBoard (long) - the bitboard
+	 * @return int - the number of squares in it
+	 */
+	public static int count(long bitBoard) {
+		return Long.bitCount(bitBoard);
+	}//end of count method
+
+	/**
+	 * Returns the bitboard as a board with the 8th row on top. Used for debugging.
+	 * @param bitBoard (long) - the bitboard
+	 * @return String - an 8 by 8 grid of 1's and .'s
+	 */
+	public static String toString(long bitBoard) {
+		StringBuilder builder = new StringBuilder(72);
+		for (int y = ChessBoard.LENGTH - 1; y >= 0; y--) {
+			for (int x = 0; x < ChessBoard.LENGTH; x++) {
+				builder.append(contains(bitBoard, square(x, y)) ? '1' : '.');
+			}
+			builder.append('\n');
+		}
+		return builder.toString();
+	}//end of toString method
+}//end of BitBoard class
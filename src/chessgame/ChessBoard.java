@@ -76,17 +76,64 @@ public class ChessBoard {
 	/** Row where white castles and where all white non-pawn pieces start at the beginning of the game */
 	public static final int WHITE_SIDE_YPOSITION = 0;
 	
+	/** Castling right of white to castle on the King's side */
+	public static final int WHITE_KINGSIDE_CASTLE = 1;
+	/** Castling right of white to castle on the Queen's side */
+	public static final int WHITE_QUEENSIDE_CASTLE = 2;
+	/** Castling right of black to castle on the King's side */
+	public static final int BLACK_KINGSIDE_CASTLE = 4;
+	/** Castling right of black to castle on the Queen's side */
+	public static final int BLACK_QUEENSIDE_CASTLE = 8;
 	
-	/** Checks the position of the board */
-	private boolean checked;
+	/** The castling rights that are kept when a piece moves from or to a square. Use CASTLE_MASKS[square] */
+	private static final int[] CASTLE_MASKS = new int[BitBoard.SQUARES];
 	
-	/** Checks if the chessboard is in an illegal position */
-	private boolean illegalPosition;
+	/** The number of moves in a row that have to give check for a perpetual check */
+	private static final int PERPETUAL_CHECK_MOVES = 50;
+	/** The number of times a position has to come up for a draw through repeating moves */
+	private static final int REPETITIONS_FOR_DRAW = 3;
+	/** The number of slots in the repetition table. Must be a power of 2 */
+	private static final int REPETITION_SLOTS = 1 << 12;
+	
+	/** The FEN letters of the pieceTypes, in the order of PieceType */
+	private static final String FEN_PIECES = "pbnrqk";
+	/** The FEN letters of the castling rights, in the order of the _CASTLE flags */
+	private static final String FEN_CASTLING = "KQkq";
 	
 	
 	/** Position of piece on the board */
 	private Piece[][] board;
 	
+	/** The bitboards of every kind of piece. Use pieceBoards[piece.getIndex()] */
+	private long[] pieceBoards = new long[Piece.EMPTY_INDEX];
+	
+	/** The bitboards of all the pieces of each turn. Use turnBoards[turn.ordinal()] */
+	private long[] turnBoards = new long[2];
+	
+	/** The bitboard of all the squares that are not empty */
+	private long occupied;
+	
+	/** The castles that are still allowed, as a combination of the _CASTLE flags */
+	private int castlingRights;
+	
+	/** The square behind a pawn that just moved two squares, or -1 */
+	private int enPassantSquare = -1;
+	
+	/** The Zobrist hash of this position (see Zobrist) */
+	private long hash;
+	
+	/** The number of moves since the last pawn move or take. No position before that can come back */
+	private int halfmoveClock;
+	
+	/** The number of moves in a row, up to the last move, that put the opponent in check */
+	private int checkStreak;
+	
+	/** The number of moves played in the game before this chessBoard's first move (only set by FEN) */
+	private int startingPly;
+	
+	/** The number of positions played on this chessBoard in every slot, by hash (see isRepeated) */
+	private byte[] repetitions = new byte[REPETITION_SLOTS];
+	
 	/** The chess ai this ai contains*/
 	private AI ai;
 	
@@ -99,11 +146,11 @@ public class ChessBoard {
 	/** Player's turn */
 	private Turn turn;
 	
-	/** A history of moves */
-	private ArrayList<Move> moveHistory = new ArrayList<>(20);
-	
-	/** The general available moves of the mover in this current board position (aka. excludes check) */
-	private ArrayList<Move> moverPossibleMoves = new ArrayList<>();
+	/**
+	 * The moves of the undo stack in an immutable linked list, which is shared with the snapshots. It is
+	 * only brought up to date by snapshot(), so it can be behind the undo stack, but never ahead of it.
+	 */
+	private Position.History history;
 	
 	/** The possible moves for the opponent in the current board position */
 	private ArrayList<Move> opponentPossibleMoves = new ArrayList<>();
@@ -113,6 +160,18 @@ public class ChessBoard {
 	
 	/** The draw type of the chessBoard if there is one. Use chessboard.checkWin() to update */
 	private String drawType;
+	
+	/** If opponentPossibleMoves is up to date */
+	private boolean opponentMovesGenerated;
+	
+	/** If availableMoves is up to date */
+	private boolean availableMovesGenerated;
+	
+	/** The undo stack. There is one State for every move made that has not been unmade */
+	private State[] states = new State[32];
+	
+	/** The number of States in the undo stack */
+	private int stateCount;
 
 	/**
 	 * Sets the default board
@@ -125,14 +184,23 @@ public class ChessBoard {
 				Turn turn = y < 4 ? WHITE : BLACK;
 				if (endOfBoard(y)) {
 					// end of board
-					DEFAULT_BOARD[x][y] = new Piece(turn, ORDER[x]);
+					DEFAULT_BOARD[x][y] = Piece.valueOf(turn, ORDER[x]);
 				} else if (y == 1 || y == 6) {
-					DEFAULT_BOARD[x][y] = new Piece(turn, PAWN);
+					DEFAULT_BOARD[x][y] = Piece.valueOf(turn, PAWN);
 				} else {
-					DEFAULT_BOARD[x][y] = new Piece();
+					DEFAULT_BOARD[x][y] = Piece.EMPTY_PIECE;
 				}
 			}
 		}
+		
+		// moving the king or a rook, or taking a rook, loses the castling rights of that piece
+		Arrays.fill(CASTLE_MASKS, WHITE_KINGSIDE_CASTLE | WHITE_QUEENSIDE_CASTLE | BLACK_KINGSIDE_CASTLE | BLACK_QUEENSIDE_CASTLE);
+		for (Turn turn : new Turn[] { WHITE, BLACK }) {
+			int y = turn == WHITE ? WHITE_SIDE_YPOSITION : BLACK_SIDE_YPOSITION;
+			CASTLE_MASKS[BitBoard.square(KING_XPOSITION, y)] &= ~(castlingRight(turn, true) | castlingRight(turn, false));
+			CASTLE_MASKS[BitBoard.square(KINGSIDE_ROOK_XPOSITION, y)] &= ~castlingRight(turn, true);
+			CASTLE_MASKS[BitBoard.square(QUEENSIDE_ROOK_XPOSITION, y)] &= ~castlingRight(turn, false);
+		}
 	}//end of static block
 
 	/**
@@ -143,10 +211,12 @@ public class ChessBoard {
 	 */
 	public ChessBoard(boolean aiExists, int ai, Turn turn) {
 		board = ChessBoard.clonedBoard(DEFAULT_BOARD);
+		initBitBoards();
+		initCastlingRights();
 		this.aiExists = aiExists;
-		this.turn = BLACK; // will be changed to white in reset
-		reset();
-		setAvailableMoves();
+		this.turn = WHITE;
+		hash = Zobrist.hash(this);
+		repetitions[repetitionSlot(hash)]++;
 
 		if (aiExists) {
 			this.ai = new AI(ai, this, turn);
@@ -164,63 +234,218 @@ public class ChessBoard {
 	 */
 	public ChessBoard(Piece[][] board, Turn turn){
 		this.board = board;
+		initBitBoards();
+		initCastlingRights();
 		this.aiExists = false;
-		this.turn = getOppositeTurn(turn); // will be changed to white in reset
-		reset();
-		setAvailableMoves();
+		this.turn = turn;
+		hash = Zobrist.hash(this);
+		repetitions[repetitionSlot(hash)]++;
 	}//end of constructor
 
 	/**
-	 * This chessBoard creates a chessBoard with the given chessBoard after a
-	 * certain move. It is used to check different states of the board.
-	 * @param chessBoard (ChessBoard) - the base chessBoard
-	 * @param move (Move) - the move to add
+	 * Creates a copy of the chessBoard given in. Moving pieces on the copy does not change the
+	 * chessBoard it was copied from, so it can be searched through with makeMove and unmakeMove.
+	 * @param chessBoard (ChessBoard) - the chessBoard to copy
 	 */
-	private ChessBoard(ChessBoard chessBoard, Move move) {
-		turn = move.getTurn();
-		moveHistory = chessBoard.getMoveHistory();
+	public ChessBoard(ChessBoard chessBoard) {
+		turn = chessBoard.turn;
 		aiExists = chessBoard.aiExists;
 		ai = chessBoard.ai;
+		board = clonedBoard(chessBoard.board);
+		pieceBoards = chessBoard.pieceBoards.clone();
+		turnBoards = chessBoard.turnBoards.clone();
+		occupied = chessBoard.occupied;
+		castlingRights = chessBoard.castlingRights;
+		enPassantSquare = chessBoard.enPassantSquare;
+		hash = chessBoard.hash;
+		halfmoveClock = chessBoard.halfmoveClock;
+		checkStreak = chessBoard.checkStreak;
+		startingPly = chessBoard.startingPly;
+		repetitions = chessBoard.repetitions.clone();
+		history = chessBoard.history;
+		undoMove = chessBoard.undoMove;
+		copyStates(chessBoard);
+	}//end of constructor
+
+	/**
+	 * Creates a chessBoard from a FEN string (Forsyth-Edwards Notation), e.g. the starting position is
+	 * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1". The castling rights, enPassuant
+	 * square and clocks come from the FEN, and can be left out. A castling right is only kept if the king
+	 * and the rook are on their starting squares. Nothing is generated until it is asked for, so this is
+	 * cheap enough to load many positions. AI is false.
+	 * @param fen (String) - the FEN of the position
+	 * @throws IllegalArgumentException if the FEN can not be read, or its enPassuant square could not
+	 *             come from a double pawn move
+	 */
+	public ChessBoard(String fen) {
+		String[] fields = fen.trim().split("\\s+");
+		if (fields.length < 2 || !fields[1].matches("[wb]")) {
+			throw new IllegalArgumentException("INVALID FEN: " + fen);
+		}
+		board = fenBoard(fields[0], fen);
+		initBitBoards();
+		aiExists = false;
+		turn = fields[1].equals("w") ? WHITE : BLACK;
 		
-		// make new copy of board not destroy the other chessBoard's copy
-		board = new Piece[LENGTH][];
-		for (int i = 0; i < LENGTH; i++) {
-			board[i] = Arrays.copyOf(chessBoard.board[i], LENGTH);
+		if (fields.length > 2 && !fields[2].equals("-")) {
+			for (char c : fields[2].toCharArray()) {
+				int index = FEN_CASTLING.indexOf(c);
+				if (index < 0) {
+					throw new IllegalArgumentException("INVALID FEN: " + fen);
+				}
+				castlingRights |= 1 << index;
+			}
+			// a right is dropped if its king or rook is not on its starting square
+			for (Turn side : new Turn[] { WHITE, BLACK }) {
+				for (boolean kingSide : new boolean[] { true, false }) {
+					if (!castlingPiecesHome(side, kingSide)) {
+						castlingRights &= ~castlingRight(side, kingSide);
+					}
+				}
+			}
 		}
-
-		//move method without the reset
-		Piece pieceTaken = new Piece();
-		Piece promotion = move.getPromotion();
-		boolean specialMove = move.isSpecialMove();
-
-		if (move.hasEnpassuant()) {
-			pieceTaken = board[move.endX()][move.startY()];
-			board[move.endX()][move.startY()] = new Piece();
-
-		} else if (move.hasCastled()) {
-			// this is a castle
-			if (move.endX() - move.startX() == CASTLE_DISTANCE) {
-				castleRooks(KINGSIDE_ROOK_XPOSITION, KINGSIDE_CASTLED_ROOK_XPOSITION, move.startY());
-			} else {
-				castleRooks(QUEENSIDE_ROOK_XPOSITION, QUEENSIDE_CASTLED_ROOK_XPOSITION, move.startY());
+		if (fields.length > 3 && !fields[3].equals("-")) {
+			if (!fields[3].matches("[a-h][1-8]")) {
+				throw new IllegalArgumentException("INVALID FEN: " + fen);
 			}
-
-		} else if (move.contains(PAWN) && (move.endY() == 7 || move.endY() == 0)) {
-			// promotion
-			if (aiExists && turn == ai.getTurn()) {
-				promotion = ai.getPromotion();
+			// a double push of the side that just moved left its pawn one square beyond the square
+			int x = fields[3].charAt(0) - 'a';
+			int y = fields[3].charAt(1) - '1';
+			Turn mover = getOppositeTurn(turn);
+			int pawnY = mover == WHITE ? y + 1 : y - 1;
+			if (y != (mover == WHITE ? 2 : 5) || !containsPieceAt(x, pawnY, PAWN, mover)) {
+				throw new IllegalArgumentException("INVALID FEN: " + fen);
 			}
-
-			board[move.startX()][move.startY()] = promotion;
-			pieceTaken = board[move.endX()][move.endY()];
+			enPassantSquare = BitBoard.square(x, y);
+		}
+		int fullmoveNumber;
+		try {
+			halfmoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+			fullmoveNumber = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("INVALID FEN: " + fen, e);
+		}
+		if (halfmoveClock < 0 || fullmoveNumber < 1) {
+			throw new IllegalArgumentException("INVALID FEN: " + fen);
+		}
+		startingPly = 2 * (fullmoveNumber - 1) + (turn == BLACK ? 1 : 0);
+		
+		hash = Zobrist.hash(this);
+		repetitions[repetitionSlot(hash)]++;
+	}//end of constructor
+	
+	/**
+	 * Reads the pieces of a FEN, from the 8th row down to the 1st
+	 * @param placement (String) - the first field of the FEN
+	 * @param fen (String) - the whole FEN, for the error message
+	 * @return Piece[][] - the pieces, board[x][y]
+	 * @throws IllegalArgumentException if the pieces can not be read
+	 */
+	private static Piece[][] fenBoard(String placement, String fen) {
+		String[] rows = placement.split("/");
+		if (rows.length != LENGTH) {
+			throw new IllegalArgumentException("INVALID FEN: " + fen);
+		}
+		Piece[][] board = new Piece[LENGTH][LENGTH];
+		for (int row = 0; row < LENGTH; row++) {
+			int y = LENGTH - 1 - row;
+			int x = 0;
+			for (char c : rows[row].toCharArray()) {
+				if (c >= '1' && c <= '8') {
+					for (int i = c - '0'; i > 0 && x < LENGTH; i--) {
+						board[x++][y] = Piece.EMPTY_PIECE;
+					}
+				} else if (x < LENGTH && FEN_PIECES.indexOf(Character.toLowerCase(c)) >= 0) {
+					PieceType pieceType = PieceType.values()[FEN_PIECES.indexOf(Character.toLowerCase(c))];
+					board[x++][y] = Piece.valueOf(Character.isUpperCase(c) ? WHITE : BLACK, pieceType);
+				} else {
+					throw new IllegalArgumentException("INVALID FEN: " + fen);
+				}
+			}
+			if (x != LENGTH) {
+				throw new IllegalArgumentException("INVALID FEN: " + fen);
+			}
+		}
+		return board;
+	}//end of fenBoard method
+	
+	/**
+	 * Returns the FEN string (Forsyth-Edwards Notation) of the current position. See ChessBoard(String).
+	 * @return String - the FEN of the position
+	 */
+	public String toFen() {
+		StringBuilder fen = new StringBuilder();
+		for (int y = LENGTH - 1; y >= 0; y--) {
+			int empty = 0;
+			for (int x = 0; x < LENGTH; x++) {
+				Piece piece = board[x][y];
+				if (piece.isEmpty()) {
+					empty++;
+					continue;
+				}
+				if (empty > 0) {
+					fen.append(empty);
+					empty = 0;
+				}
+				char c = FEN_PIECES.charAt(piece.getPieceType().ordinal());
+				fen.append(piece.contains(WHITE) ? Character.toUpperCase(c) : c);
+			}
+			if (empty > 0) {
+				fen.append(empty);
+			}
+			if (y > 0) {
+				fen.append('/');
+			}
+		}
+		
+		fen.append(turn == BLACK ? " b " : " w ");
+		if (castlingRights == 0) {
+			fen.append('-');
+		}
+		for (int i = 0; i < FEN_CASTLING.length(); i++) {
+			if ((castlingRights & (1 << i)) != 0) {
+				fen.append(FEN_CASTLING.charAt(i));
+			}
+		}
+		
+		fen.append(' ');
+		if (enPassantSquare < 0) {
+			fen.append('-');
 		} else {
-			pieceTaken = board[move.endX()][move.endY()];
+			fen.append(Display.getLetter(BitBoard.getX(enPassantSquare))).append(BitBoard.getY(enPassantSquare) + 1);
 		}
-
-		generalMove(move.getStartPosition(), move.getEndPosition());
-		moveHistory.add(new Move(move, pieceTaken, promotion, specialMove));
-		undoMove = null;
-		reset();
+		int ply = startingPly + stateCount;
+		fen.append(' ').append(halfmoveClock).append(' ').append(ply / 2 + 1);
+		return fen.toString();
+	}//end of toFen method
+	
+	/**
+	 * Creates a chessBoard from a snapshot (see snapshot()). The moves of the snapshot can be taken back
+	 * with unmakeMove, and count for repeated positions. AI is false.
+	 * @param position (Position) - the snapshot to start from
+	 */
+	public ChessBoard(Position position) {
+		board = position.getBoard();
+		initBitBoards();
+		aiExists = false;
+		turn = position.getTurn();
+		castlingRights = position.getCastlingRights();
+		enPassantSquare = position.getEnPassantSquare();
+		hash = position.getHash();
+		halfmoveClock = position.getHalfmoveClock();
+		checkStreak = position.getCheckStreak();
+		startingPly = position.getStartingPly();
+		history = position.getHistory();
+		
+		// the undo stack and the repetition table are built again from the history
+		stateCount = position.getMoveCount();
+		states = new State[Math.max(stateCount, states.length)];
+		for (Position.History node = history; node != null; node = node.previous) {
+			states[node.size - 1] = new State();
+			states[node.size - 1].load(node);
+			repetitions[repetitionSlot(node.hash)]++;
+		}
+		repetitions[repetitionSlot(hash)]++;
 	}//end of constructor
 
 	/**
@@ -230,12 +455,19 @@ public class ChessBoard {
 	 * @param aiLevel (int) - The difficulty of the ai
 	 */
 	public ChessBoard(ChessBoard chessBoard, boolean aiExists, int aiLevel) {
-		this.moveHistory = chessBoard.moveHistory;
-		this.turn =  getOppositeTurn(chessBoard.turn);
+		this.turn = chessBoard.turn;
 		this.aiExists = aiExists;
 		this.board = chessBoard.board;
-		reset();
-		setAvailableMoves();
+		initBitBoards();
+		this.castlingRights = chessBoard.castlingRights;
+		this.enPassantSquare = chessBoard.enPassantSquare;
+		this.hash = chessBoard.hash;
+		this.halfmoveClock = chessBoard.halfmoveClock;
+		this.checkStreak = chessBoard.checkStreak;
+		this.startingPly = chessBoard.startingPly;
+		this.repetitions = chessBoard.repetitions.clone();
+		this.history = chessBoard.history;
+		copyStates(chessBoard);
 		
 		if (aiExists){
 			ai = new AI(aiLevel, this, getOppositeTurn(turn));
@@ -256,9 +488,9 @@ public class ChessBoard {
 	 */
 	public boolean canUndo() {
 		if (aiExists && ai.getTurn() == WHITE){
-			return moveHistory.size() > 1;
+			return stateCount > 1;
 		}
-		return !moveHistory.isEmpty();
+		return stateCount > 0;
 	}//end of moveHistory method
 
 	/**
@@ -278,8 +510,7 @@ public class ChessBoard {
 	 *         of the board
 	 */
 	public ArrayList<Move> getAvailableMoves() {
-		ArrayList<Move> copyOfMoverMoves = new ArrayList<>();
-		copyOfMoverMoves.addAll(availableMoves);
+		generateAvailableMoves();
 		return availableMoves;
 	}//end of getAvailableMoves method
 
@@ -297,8 +528,10 @@ public class ChessBoard {
 	 *         the game
 	 */
 	public ArrayList<Move> getMoveHistory() {
-		ArrayList<Move> copy = new ArrayList<>();
-		copy.addAll(moveHistory);
+		ArrayList<Move> copy = new ArrayList<>(stateCount);
+		for (int i = 0; i < stateCount; i++) {
+			copy.add(playedMove(i));
+		}
 		return copy;
 	}//end of getMoveHistory method
 
@@ -309,6 +542,7 @@ public class ChessBoard {
 	 *         their turn was to be right now
 	 */
 	public ArrayList<Move> getOpponentAvailableMoves() {
+		generateOpponentPossibleMoves();
 		ArrayList<Move> moves = new ArrayList<>(opponentPossibleMoves.size());
 		moves.addAll(opponentPossibleMoves);
 		return moves;
@@ -324,6 +558,15 @@ public class ChessBoard {
 		return board[position[0]][position[1]];
 	}//end of getPieceAt method
 
+	/**
+	 * Returns the index of the piece on the square (see Piece.getIndex())
+	 * @param square (int) - the square index (see BitBoard)
+	 * @return int - the index of the piece, or Piece.EMPTY_INDEX if the square is empty
+	 */
+	public int getPieceIndexAt(int square) {
+		return board[BitBoard.getX(square)][BitBoard.getY(square)].getIndex();
+	}//end of getPieceIndexAt method
+
 	/**
 	 * Returns the piece on the coordinate x, y on the chessboard
 	 * @param x (int) - the x coordinate you are looking at
@@ -344,11 +587,11 @@ public class ChessBoard {
 
 	/**
 	 * Returns if the moved person is still in check after his/her move. (aka
-	 * illegal move/ position)
+	 * illegal move/ position). This only looks at the attacks on the king, so no moves are generated.
 	 * @return boolean - if they are in check after the move is over
 	 */
 	public boolean illegalPosition() {
-		return illegalPosition;
+		return turn != NONE && MoveGenerator.kingAttacked(this, getOppositeTurn(turn));
 	}//end of illegalPosition method
 
 	/**
@@ -358,7 +601,7 @@ public class ChessBoard {
 	 * @return boolean if the position is empty
 	 */
 	public boolean isEmptyAt(int x, int y) {
-		return getPieceAt(x, y).isEmpty();
+		return (occupied & BitBoard.bit(x, y)) == 0;
 	}//end of isEmptyAt method
 
 	/**
@@ -367,7 +610,7 @@ public class ChessBoard {
 	 * @return boolean if the position is empty
 	 */
 	public boolean isEmptyAt(int[] position) {
-		return getPieceAt(position).isEmpty();
+		return isEmptyAt(position[0], position[1]);
 	}//end of isEmptyAt method
 
 	/**
@@ -378,7 +621,7 @@ public class ChessBoard {
 	 * @return boolean - true if it is an enemy Piece
 	 */
 	public boolean containsEnemyPieceAt(int[] coords, Turn turn) {
-		return getPieceAt(coords).isEnemyPiece(turn);
+		return containsEnemyPieceAt(coords[0], coords[1], turn);
 	}//end of containsEnemyPieceAt method
 
 	/**
@@ -390,7 +633,7 @@ public class ChessBoard {
 	 * @return boolean - true if it is an enemy Piece
 	 */
 	public boolean containsEnemyPieceAt(int x, int y, Turn turn) {
-		return getPieceAt(x, y).isEnemyPiece(turn);
+		return ((occupied & ~getBitBoard(turn)) & BitBoard.bit(x, y)) != 0;
 	}//end of containsEnemyPieceAt method
 
 	/**
@@ -402,7 +645,7 @@ public class ChessBoard {
 	 * @return boolean - true if it is an enemy Piece
 	 */
 	public boolean containsEnemyPieceAt(int[] coords, PieceType pieceType, Turn turn) {
-		return getPieceAt(coords).isEnemyPiece(pieceType, turn);
+		return containsEnemyPieceAt(coords[0], coords[1], pieceType, turn);
 	}//end of containsEnemyPieceAt method
 
 	/**
@@ -415,7 +658,7 @@ public class ChessBoard {
 	 * @return boolean - true if it is an enemy Piece
 	 */
 	public boolean containsEnemyPieceAt(int x, int y, PieceType pieceType, Turn turn) {
-		return getPieceAt(x, y).isEnemyPiece(pieceType, turn);
+		return pieceType != EMPTY && ((getBitBoard(pieceType) & ~getBitBoard(turn)) & BitBoard.bit(x, y)) != 0;
 	}//end of containsEnemyPieceAt method
 
 	/**
@@ -426,7 +669,7 @@ public class ChessBoard {
 	 * @return boolean - true if it is an friendly Piece
 	 */
 	public boolean containsFriendlyPieceAt(int[] coords, Turn turn) {
-		return !isEmptyAt(coords) && !getPieceAt(coords).isEnemyPiece(turn);
+		return containsFriendlyPieceAt(coords[0], coords[1], turn);
 	}//end of containsFriendlyPieceAt method
 
 	/**
@@ -438,7 +681,7 @@ public class ChessBoard {
 	 * @return boolean - true if it is a friendly Piece
 	 */
 	public boolean containsFriendlyPieceAt(int x, int y, Turn turn) {
-		return getPieceAt(x, y).isFriendlyPiece(turn);
+		return turn != NONE && (getBitBoard(turn) & BitBoard.bit(x, y)) != 0;
 	}//end of containsFriendlyPieceAt method
 
 	/**
@@ -452,7 +695,7 @@ public class ChessBoard {
 	 * @return boolean - true if it is a friendly Piece with given PieceType
 	 */
 	public boolean containsFriendlyPieceAt(int x, int y, PieceType pieceType, Turn turn) {
-		return containsFriendlyPieceAt(x, y, turn) && getPieceAt(x, y).contains(pieceType);
+		return turn != NONE && (getBitBoard(pieceType, turn) & BitBoard.bit(x, y)) != 0;
 	}//end of containsFriendlyPieceAt method
 
 	/**
@@ -474,7 +717,7 @@ public class ChessBoard {
 	 * @return boolean - there is a piece with given PieceType
 	 */
 	public boolean containsPieceAt(int[] coords, PieceType pieceType) {
-		return getPieceAt(coords).getPieceType() == pieceType;
+		return containsPieceAt(coords[0], coords[1], pieceType);
 	}//end of containsPieceAt method
 
 	/**
@@ -485,7 +728,7 @@ public class ChessBoard {
 	 * @return boolean - there is a piece with given PieceType
 	 */
 	public boolean containsPieceAt(int x, int y, PieceType pieceType) {
-		return getPieceAt(x, y).getPieceType() == pieceType;
+		return (getBitBoard(pieceType) & BitBoard.bit(x, y)) != 0;
 	}//end of containsPieceAt method
 
 	/**
@@ -496,43 +739,227 @@ public class ChessBoard {
 	 * @param move (Move) - A move object that a piece took
 	 */
 	public void move(Move move) {
-
-		// additional information variables
-		Piece pieceTaken = new Piece();
-		Piece promotion = move.getPromotion();
-		boolean specialMove = move.isSpecialMove();
-
-		if (move.hasEnpassuant()) {
-			pieceTaken = board[move.endX()][move.startY()];
-			board[move.endX()][move.startY()] = new Piece();
-
-		} else if (move.hasCastled()) {
-			// this is a castle
-			if (move.endX() - move.startX() == CASTLE_DISTANCE) {
-				castleRooks(KINGSIDE_ROOK_XPOSITION, KINGSIDE_CASTLED_ROOK_XPOSITION, move.startY());
+		// promotion
+		if (aiExists && turn == ai.getTurn() && move.contains(PAWN) && endOfBoard(move.endY())) {
+			move = new Move(move, move.getPieceTaken(), ai.getPromotion(), move.isSpecialMove());
+		}
+		
+		doMove(PackedMove.valueOf(move, this), move.isChecked());
+		undoMove = null;
+	}//end of move method
+	
+	/**
+	 * Plays the move on this chessBoard and pushes it onto the undo stack so that unmakeMove can take it
+	 * back. The moves of the new position are only generated when they are asked for. <br>
+	 * Unlike move, the AI is not asked for a promotion.
+	 * @param move (int) - a packed move (see PackedMove) for a piece of either turn
+	 */
+	public void makeMove(int move) {
+		doMove(move, false);
+	}//end of makeMove method
+	
+	/**
+	 * Plays the move on this chessBoard and pushes it onto the undo stack so that unmakeMove can take it
+	 * back. See makeMove(int)
+	 * @param move (Move) - the move to play
+	 */
+	public void makeMove(Move move) {
+		doMove(PackedMove.valueOf(move, this), move.isChecked());
+	}//end of makeMove method
+	
+	/**
+	 * Takes back the last move played with makeMove or move, restoring the board, the turn and the moves
+	 * that were generated before the move
+	 */
+	public void unmakeMove() {
+		State state = states[--stateCount];
+		int move = state.move;
+		int startX = BitBoard.getX(PackedMove.getStart(move));
+		int startY = BitBoard.getY(PackedMove.getStart(move));
+		int endX = BitBoard.getX(PackedMove.getEnd(move));
+		int endY = BitBoard.getY(PackedMove.getEnd(move));
+		Piece pieceTaken = Piece.valueOf(PackedMove.getTaken(move));
+		if (history != null && history.size > stateCount) {
+			history = history.previous;
+		}
+		
+		// put the moved piece back (a promoted piece goes back to being a pawn)
+		setPieceAt(startX, startY, Piece.valueOf(PackedMove.getPiece(move)));
+		if (PackedMove.isEnPassant(move)) {
+			setPieceAt(endX, endY, Piece.EMPTY_PIECE);
+			setPieceAt(endX, startY, pieceTaken);
+		} else {
+			setPieceAt(endX, endY, pieceTaken);
+		}
+		
+		// switch rook back to old position
+		if (PackedMove.isCastle(move)) {
+			if (endX == KINGSIDE_CASTLED_KING_XPOSITION) {
+				castleRooks(KINGSIDE_CASTLED_ROOK_XPOSITION, KINGSIDE_ROOK_XPOSITION, startY);
 			} else {
-				castleRooks(QUEENSIDE_ROOK_XPOSITION, QUEENSIDE_CASTLED_ROOK_XPOSITION, move.startY());
-			}
-
-		} else if (move.contains(PAWN) && (move.endY() == 7 || move.endY() == 0)) {
-
-			// promotion
-			if (aiExists && turn == ai.getTurn()) {
-				promotion = ai.getPromotion();
+				castleRooks(QUEENSIDE_CASTLED_ROOK_XPOSITION, QUEENSIDE_ROOK_XPOSITION, startY);
 			}
-
-			board[move.startX()][move.startY()] = promotion;
-			pieceTaken = board[move.endX()][move.endY()];
+		}
+		
+		repetitions[repetitionSlot(hash)]--;
+		state.restore(this);
+	}//end of unmakeMove method
+	
+	/**
+	 * Passes the turn to the opponent without moving a piece (a null move), for searches that want to
+	 * know how strong the position is even if the mover does nothing. It is pushed onto the undo stack
+	 * but is not a move of the moveHistory, and must be taken back with unmakeNullMove before any other
+	 * move is taken back or the moveHistory or a snapshot is asked for. The halfmove clock starts again,
+	 * so positions from before the null move are never counted as repetitions. <br>
+	 * The mover must not be in check.
+	 */
+	public void makeNullMove() {
+		pushState(PackedMove.NONE);
+		hash ^= stateHash();
+		enPassantSquare = -1;
+		turn = getOppositeTurn(turn);
+		hash ^= stateHash();
+		halfmoveClock = 0;
+		checkStreak = 0;
+		repetitions[repetitionSlot(hash)]++;
+		opponentMovesGenerated = false;
+		availableMovesGenerated = false;
+	}//end of makeNullMove method
+	
+	/**
+	 * Takes back the null move played with makeNullMove
+	 */
+	public void unmakeNullMove() {
+		repetitions[repetitionSlot(hash)]--;
+		states[--stateCount].restore(this);
+	}//end of unmakeNullMove method
+	
+	/**
+	 * Plays the packed move and saves the current state on the undo stack. Nothing is allocated: the Move
+	 * for the moveHistory is only made when it is asked for (see playedMove)
+	 * @param move (int) - the packed move to play
+	 * @param checked (boolean) - if the move puts the opponent in check, for the moveHistory
+	 */
+	private void doMove(int move, boolean checked) {
+		int startX = BitBoard.getX(PackedMove.getStart(move));
+		int startY = BitBoard.getY(PackedMove.getStart(move));
+		int endX = BitBoard.getX(PackedMove.getEnd(move));
+		int endY = BitBoard.getY(PackedMove.getEnd(move));
+		Piece piece = board[startX][startY];
+		Turn mover = piece.getTurn();
+		
+		pushState(move);
+		states[stateCount - 1].checked = checked;
+		hash ^= stateHash();
+		
+		if (PackedMove.isEnPassant(move)) {
+			setPieceAt(endX, startY, Piece.EMPTY_PIECE);
 		} else {
-			pieceTaken = board[move.endX()][move.endY()];
+			if (PackedMove.isCastle(move)) {
+				// this is a castle
+				if (endX - startX == CASTLE_DISTANCE) {
+					castleRooks(KINGSIDE_ROOK_XPOSITION, KINGSIDE_CASTLED_ROOK_XPOSITION, startY);
+				} else {
+					castleRooks(QUEENSIDE_ROOK_XPOSITION, QUEENSIDE_CASTLED_ROOK_XPOSITION, startY);
+				}
+			}
 		}
-
-		generalMove(move.getStartPosition(), move.getEndPosition());
-		moveHistory.add(new Move(move, pieceTaken, promotion, specialMove));
-		undoMove = null;
-		reset();
-		setAvailableMoves();
-	}
+		
+		if (PackedMove.isPromotion(move)) {
+			setPieceAt(startX, startY, Piece.valueOf(mover, PackedMove.getPromotion(move)));
+		}
+		
+		generalMove(startX, startY, endX, endY);
+		
+		castlingRights &= CASTLE_MASKS[PackedMove.getStart(move)] & CASTLE_MASKS[PackedMove.getEnd(move)];
+		enPassantSquare = PackedMove.isDoublePush(move) ? (PackedMove.getStart(move) + PackedMove.getEnd(move)) / 2 : -1;
+		
+		turn = getOppositeTurn(mover);
+		hash ^= stateHash();
+		halfmoveClock = piece.contains(PAWN) || PackedMove.isCapture(move) ? 0 : halfmoveClock + 1;
+		checkStreak = checked ? checkStreak + 1 : 0;
+		repetitions[repetitionSlot(hash)]++;
+		opponentMovesGenerated = false;
+		availableMovesGenerated = false;
+	}//end of doMove method
+	
+	/**
+	 * Returns the part of the hash that is not from the pieces: the castling rights, the enPassuant
+	 * square and the turn
+	 * @return long - the keys of those XORed together
+	 */
+	private long stateHash() {
+		return Zobrist.castling(castlingRights) ^ Zobrist.enPassant(this) ^ Zobrist.turn(turn);
+	}//end of stateHash method
+	
+	/**
+	 * Returns the Zobrist hash of this position (see Zobrist). It is kept up to date by every move, so
+	 * two positions with the same pieces, turn, castling rights and enPassuant have the same hash.
+	 * @return long - the hash of this position
+	 */
+	public long getHash() {
+		return hash;
+	}//end of getHash method
+	
+	/**
+	 * Returns an immutable snapshot of this position and the moves played to get to it. The snapshot
+	 * shares the moves with this chessBoard instead of copying them, so it is cheap to make, and it can be
+	 * read from any thread while this chessBoard keeps changing. It must be made on the thread that
+	 * plays the moves on this chessBoard.
+	 * @return Position - the snapshot
+	 */
+	public Position snapshot() {
+		// the history is only made here, so makeMove does not need a node for every move it plays
+		for (int i = history == null ? 0 : history.size; i < stateCount; i++) {
+			State state = states[i];
+			history = new Position.History(history, playedMove(i), state.move, state.turn, state.castlingRights,
+					state.enPassantSquare, state.hash, state.halfmoveClock, state.checkStreak);
+		}
+		return new Position(pieceBoards, turn, castlingRights, enPassantSquare, hash, halfmoveClock, checkStreak,
+				startingPly, history);
+	}//end of snapshot method
+	
+	/**
+	 * Returns the number of moves since the last pawn move or take
+	 * @return int - the halfmove clock
+	 */
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}//end of getHalfmoveClock method
+	
+	/**
+	 * Returns if the current position has come up at least the number of times given in, counting this
+	 * one, since this chessBoard was created. Only the positions since the last pawn move or take are
+	 * looked at, since the ones before can never come back. Searches can use isRepeated(2) to find a
+	 * repetition in the line they are looking at.
+	 * @param times (int) - the number of times the position has to have come up
+	 * @return boolean - if the position has come up that many times
+	 */
+	public boolean isRepeated(int times) {
+		// the slot counts every position with the same slot, so if it is too low there is no repetition
+		if (repetitions[repetitionSlot(hash)] < times) {
+			return false;
+		}
+		
+		// states[i].hash is the position before the i-th move, with the same mover every 2 moves. A board
+		// made from a FEN can have a halfmove clock from moves it does not have
+		int count = 1;
+		for (int i = stateCount - 2; i >= Math.max(stateCount - halfmoveClock, 0); i -= 2) {
+			if (states[i].hash == hash && ++count >= times) {
+				return true;
+			}
+		}
+		return false;
+	}//end of isRepeated method
+	
+	/**
+	 * Returns the slot of the repetition table of a hash
+	 * @param hash (long) - the hash of a position
+	 * @return int - the slot of the hash
+	 */
+	private static int repetitionSlot(long hash) {
+		return (int) hash & (REPETITION_SLOTS - 1);
+	}//end of repetitionSlot method
 
 	/**
 	 * Returns if the current turn is a players turn, instead of no ones turn or
@@ -553,13 +980,35 @@ public class ChessBoard {
 	 * @return Move - the last move that was played
 	 */
 	public Move previousMove() {
-		if (moveHistory.size() > 0) {
-			return moveHistory.get(moveHistory.size() - 1);
+		if (stateCount > 0) {
+			return playedMove(stateCount - 1);
 		} else {
 			return null;
 		}
 
 	}
+	
+	/**
+	 * Returns the move of the undo stack at the index given in as a Move. The Move is made the first
+	 * time it is asked for and kept in the State, so the moves played with makeMove(int) only become
+	 * Moves when the moveHistory is looked at.
+	 * @param index (int) - the index of the move, 0 for the first move
+	 * @return Move - the move played
+	 */
+	private Move playedMove(int index) {
+		State state = states[index];
+		if (state.playedMove == null) {
+			int move = state.move;
+			int start = PackedMove.getStart(move);
+			int end = PackedMove.getEnd(move);
+			Piece promotion = PackedMove.isPromotion(move) ? Piece.valueOf(state.turn, PackedMove.getPromotion(move))
+					: Piece.EMPTY_PIECE;
+			state.playedMove = new Move(Piece.valueOf(PackedMove.getPiece(move)), BitBoard.getX(start),
+					BitBoard.getY(start), BitBoard.getX(end), BitBoard.getY(end), Piece.valueOf(PackedMove.getTaken(move)),
+					promotion, PackedMove.isCastle(move) || PackedMove.isEnPassant(move), state.checked);
+		}
+		return state.playedMove;
+	}//end of playedMove method
 
 	@Override
 	/**
@@ -592,38 +1041,9 @@ public class ChessBoard {
 	 * 
 	 */
 	public void undo() {
-		
-		Move move = moveHistory.remove(moveHistory.size() - 1);
-
-		// check enpassant
-		if (move.hasEnpassuant()) {
-			// fill in taken piece
-			board[move.endX()][move.startY()] = move.getPieceTaken();
-		} else if (move.hasCastled()) {
-			// switch rook back to old position
-		
-			//shows Queen Castle
-			if (move.endX() == KINGSIDE_CASTLED_KING_XPOSITION) {
-				castleRooks(KINGSIDE_CASTLED_ROOK_XPOSITION, KINGSIDE_ROOK_XPOSITION, move.startY());
-			} else {
-				castleRooks(QUEENSIDE_CASTLED_ROOK_XPOSITION, KINGSIDE_CASTLED_ROOK_XPOSITION, move.startY());
-			}
-		}
-		// if a pawn is being promoted
-		if (move.isPromoted()) {
-			board[move.endX()][move.endY()] = new Piece(move.getPiece().getTurn(), PAWN);
-		}
-
-		generalMove(move.getEndPosition(), move.getStartPosition());
-
-		if (!move.hasEnpassuant()) {
-			// fill in old piece back (assuming not enpassuant)
-			board[move.endX()][move.endY()] = move.getPieceTaken();
-		}
-
+		Move move = previousMove();
+		unmakeMove();
 		undoMove = move;
-		reset();
-		setAvailableMoves();
 	}
 
 	/**
@@ -645,31 +1065,59 @@ public class ChessBoard {
 	 * @return ChessBoard - the new chessboard implemented with the move
 	 */
 	public ChessBoard viewMove(Move move) {
-		return new ChessBoard(this, move);
+		ChessBoard chessBoard = new ChessBoard(this);
+		chessBoard.move(move);
+		return chessBoard;
 	}
 
 	/**
-	 * Helper method of reAddInformation This sets variables illegalMove, check
-	 * and the variables reAddInformation is to do, the possibleMoves array
-	 * @param x (int) - the x coordinate that you are looking at
-	 * @param y (int) - the y coordinate that you are looking at
-	 * @param possibleMoves (ArrayList<Move>) - adds the possible moves of a certain piece to this moveSet
+	 * Places the piece on the square x, y. This is the only method that should change the board, since
+	 * it keeps the bitboards in sync with the board
+	 * @param x (int) - the x coordinate of the square
+	 * @param y (int) - the y coordinate of the square
+	 * @param piece (Piece) - the piece to place
 	 */
-	private void addPossibleMoves(int x, int y, ArrayList<Move> possibleMoves) {
-		ArrayList<Move> moves = board[x][y].getPossibleMoves(new int[] { x, y }, this);
-
-		// checked is always placed first, check if check == true
-		if (moves.size() > 0) {
-			Piece attacked = getPieceAt(moves.get(0).getEndPosition());
-			// currently checked (note the turn has changed before due to
-			if (attacked.contains(KING) && !attacked.contains(turn)) {
-				illegalPosition = true;
-			} else if (attacked.contains(KING)) {
-				checked = true;
+	private void setPieceAt(int x, int y, Piece piece) {
+		long bit = BitBoard.bit(x, y);
+		
+		// take the old piece off the bitboards
+		int index = board[x][y].getIndex();
+		hash ^= Zobrist.piece(index, BitBoard.square(x, y)) ^ Zobrist.piece(piece.getIndex(), BitBoard.square(x, y));
+		if (index != Piece.EMPTY_INDEX) {
+			pieceBoards[index] &= ~bit;
+			turnBoards[index & 1] &= ~bit;
+			occupied &= ~bit;
+		}
+		
+		board[x][y] = piece;
+		index = piece.getIndex();
+		if (index != Piece.EMPTY_INDEX) {
+			pieceBoards[index] |= bit;
+			turnBoards[index & 1] |= bit;
+			occupied |= bit;
+		}
+	}//end of setPieceAt method
+	
+	/**
+	 * Builds all the bitboards from the pieces on the board
+	 */
+	private void initBitBoards() {
+		pieceBoards = new long[Piece.EMPTY_INDEX];
+		turnBoards = new long[2];
+		occupied = 0;
+		
+		for (int x = 0; x < LENGTH; x++) {
+			for (int y = 0; y < LENGTH; y++) {
+				int index = board[x][y].getIndex();
+				if (index != Piece.EMPTY_INDEX) {
+					long bit = BitBoard.bit(x, y);
+					pieceBoards[index] |= bit;
+					turnBoards[index & 1] |= bit;
+					occupied |= bit;
+				}
 			}
-			possibleMoves.addAll(moves);
 		}
-	}//end of addPossibleMoves method
+	}//end of initBitBoards method
 
 	/**
 	 * Adjustes the rook position in a castle with the following parameters
@@ -679,55 +1127,91 @@ public class ChessBoard {
 	 */
 	private void castleRooks(int start, int end, int y) {
 		// set rooks
-		board[end][y] = board[start][y];
-		board[start][y] = new Piece();
+		setPieceAt(end, y, board[start][y]);
+		setPieceAt(start, y, Piece.EMPTY_PIECE);
 	}//end of castleRooks method
 
 	/**
 	 * Adjusts the pieces as any normal move would. Psuedo-code as follows:
 	 * Piece at new position is the piece at the old position. Piece at old
-	 * position is EMPTY. Returns the list that display needs to be edited too
-	 * @param startPos (int[]) - startingPosition
-	 * @param endpos (int[]) - endingPosition
+	 * position is EMPTY.
+	 * @param startX (int) - the starting x position
+	 * @param startY (int) - the starting y position
+	 * @param endX (int) - the ending x position
+	 * @param endY (int) - the ending y position
 	 */
-	private void generalMove(int[] startPos, int[] endPos) {
+	private void generalMove(int startX, int startY, int endX, int endY) {
 		// update board
-		board[endPos[0]][endPos[1]] = board[startPos[0]][startPos[1]];
-		board[startPos[0]][startPos[1]] = new Piece();
+		setPieceAt(endX, endY, board[startX][startY]);
+		setPieceAt(startX, startY, Piece.EMPTY_PIECE);
 	}//end of generalMove method
 
 	/**
-	 * private helper method: To be called after a move. It resets all the
-	 * instance variables for preparation of the next move including turn itself
+	 * Generates the possible moves of the opponent for this position if they have not been generated
+	 * yet. The mover's moves are not needed for this, since availableMoves comes from MoveGenerator.
 	 */
-	private void reset() {
-		availableMoves.clear();
-		moverPossibleMoves.clear();
-		opponentPossibleMoves.clear();
-		illegalPosition = false;
-		checked = false;
-		turn = turn == WHITE ? BLACK : WHITE;
+	private void generateOpponentPossibleMoves() {
+		if (opponentMovesGenerated) {
+			return;
+		}
 		
-		// re add all the required information
-		for (int x = 0; x < LENGTH; x++) {
-			for (int y = 0; y < LENGTH; y++) {
-				if (board[x][y].contains(turn)) {
-					addPossibleMoves(x, y, moverPossibleMoves);
-				} else {
-					addPossibleMoves(x, y, opponentPossibleMoves);
-				}
-			}
+		// a new list is made, since the list of the position before a move is kept in the undo stack
+		Turn opponent = getOppositeTurn(turn);
+		opponentPossibleMoves = new ArrayList<>();
+		for (long pieces = getBitBoard(opponent); pieces != 0; pieces = BitBoard.popLowest(pieces)) {
+			int square = BitBoard.lowest(pieces);
+			int[] position = { BitBoard.getX(square), BitBoard.getY(square) };
+			opponentPossibleMoves.addAll(getPieceAt(position).getPossibleMoves(position, this));
 		}
-	}//end of reset method
+		opponentMovesGenerated = true;
+	}//end of generateOpponentPossibleMoves method
 
 	/**
-	 * Sets the available moves in this position.
+	 * Sets the available moves in this position if they have not been set yet.
 	 */
-	private void setAvailableMoves() {
-		ArrayList<Move> copyOfMoverMoves = new ArrayList<>();
-		copyOfMoverMoves.addAll(moverPossibleMoves);
-		availableMoves = Piece.filterAvailableMoves(this, copyOfMoverMoves, opponentPossibleMoves, checked, turn);
-	}//end of setAvailableMoves method
+	private void generateAvailableMoves() {
+		if (availableMovesGenerated) {
+			return;
+		}
+		MoveList legalMoves = new MoveList();
+		MoveGenerator.generateLegalMoves(this, turn, legalMoves);
+		
+		availableMoves = new ArrayList<>(legalMoves.size());
+		for (int i = 0; i < legalMoves.size(); i++) {
+			int move = legalMoves.get(i);
+			// only one move is kept for the four promotions
+			if (!PackedMove.isPromotion(move) || PackedMove.getPromotion(move) == QUEEN) {
+				availableMoves.add(toAvailableMove(move));
+			}
+		}
+		availableMovesGenerated = true;
+	}//end of generateAvailableMoves method
+	
+	/**
+	 * Saves the state of this position on top of the undo stack
+	 * @param move (int) - the packed move that is about to be played
+	 */
+	private void pushState(int move) {
+		if (stateCount == states.length) {
+			states = Arrays.copyOf(states, stateCount * 2);
+		}
+		if (states[stateCount] == null) {
+			states[stateCount] = new State();
+		}
+		states[stateCount++].save(this, move);
+	}//end of pushState method
+	
+	/**
+	 * Makes this chessBoard's undo stack a copy of the undo stack of the chessBoard given in
+	 * @param chessBoard (ChessBoard) - the chessBoard to copy the undo stack from
+	 */
+	private void copyStates(ChessBoard chessBoard) {
+		states = new State[Math.max(chessBoard.states.length, 1)];
+		stateCount = chessBoard.stateCount;
+		for (int i = 0; i < stateCount; i++) {
+			states[i] = chessBoard.states[i].copy();
+		}
+	}//end of copyStates method
 
 	/**
 	 * Gives the opposite turn based on the turn given in
@@ -746,8 +1230,8 @@ public class ChessBoard {
 	public String checkWin() {
 		drawType = null;
 		//makes sure its set
-		setAvailableMoves();
-		if (checked && availableMoves.size() == 0) {
+		generateAvailableMoves();
+		if (inCheck() && availableMoves.size() == 0) {
 			return turn == WHITE ? BLACK_WINS : WHITE_WINS;
 		} else if (availableMoves.size() == 0) {
 			return STALEMATE;
@@ -759,19 +1243,13 @@ public class ChessBoard {
 		}
 		
 		//check perpetual check
-		noTie: if (moveHistory.size() - 50 >= 0){
-			for (int i = moveHistory.size() - 1; i >= moveHistory.size() - 50; i--){
-				if (!moveHistory.get(i).isChecked()){
-					break noTie;
-				}
-			}
+		if (checkStreak >= PERPETUAL_CHECK_MOVES){
 			drawType = ChessBoard.PERPETUAL_CHECK;
 			return POSSIBLE_DRAW;
 		}
 		
 		//check 3 move
-		if (sameLastThreeMoves(moveHistory.size() - 1) && sameLastThreeMoves(moveHistory.size() - 2)){
-
+		if (isRepeated(REPETITIONS_FOR_DRAW)){
 			drawType = ChessBoard.THRICE_REPEATED;
 			return POSSIBLE_DRAW;
 		}
@@ -779,57 +1257,14 @@ public class ChessBoard {
 		return CURRENTLY_PLAYING;
 	}//end of checkWin method
 
-	/**
-	 * Returns if the last three moves from every fourth index is the same, checking from index and index - 2
-	 * @param index - int index to start at
-	 * @return if the condition written above is true
-	 */
-	private boolean sameLastThreeMoves(int index){
-		if (moveHistory.size() > 12){
-			Move move1 = moveHistory.get(index);
-			for (int i = index - 4; i >= index - 8; i -= 4){
-				if (!move1.equals(moveHistory.get(i))){
-					return false;
-				}
-			}
-			
-			Move move2 = moveHistory.get(index - 2);
-			for (int i = index - 6; i >= index - 10; i -= 4){
-				if (!move2.equals(moveHistory.get(i))){
-					return false;
-				}
-			}
-			
-			return true;
-		}
-		
-		return false;
-	}
-	
 	/**
 	 * Returns if the person of that turn have enough material for a checkMate
 	 * @param turn Turn of player
 	 * @return boolean if the player has enough material for a checkMate
 	 */
 	private boolean enoughMaterial(Turn turn){
-		int knightOrBishop = 0;
-		
-		for (Piece[] row: board){
-			for (Piece p: row){
-				if (p.contains(turn)){
-					if (p.contains(BISHOP) || p.contains(KNIGHT)){
-						if (++knightOrBishop > 1){
-							return true;
-						}
-					} if (p.contains(KING)){
-						continue;
-					} else  {
-						return true;
-					}
-				}//checking the correct turn
-			}//for each loop of pieces
-		}
-		return false;
+		// any piece other than the king counts as enough
+		return (getBitBoard(turn) & ~getBitBoard(KING, turn)) != 0;
 	}
 	
 	
@@ -842,11 +1277,12 @@ public class ChessBoard {
 	}//end of getAIMove method
 
 	/**
-	 * Returns whether the mover is in check
+	 * Returns whether the mover is in check. This only looks at the attacks on the king, so no moves are
+	 * generated.
 	 * @return check- if the mover is in check or not
 	 */
 	public boolean inCheck() {
-		return checked;
+		return turn != NONE && MoveGenerator.kingAttacked(this, turn);
 	}//end of inCheck method
 
 	/**
@@ -858,7 +1294,7 @@ public class ChessBoard {
 	 * @return boolean - if the pieceType and turn have the right properties
 	 */
 	public boolean containsPieceAt(int x, int y, PieceType pieceType, Turn turn) {
-		return containsPieceAt(x, y, pieceType) && getPieceAt(x, y).contains(turn);
+		return (getBitBoard(pieceType, turn) & BitBoard.bit(x, y)) != 0;
 	}//end of containsPieceAt method
 	
 	/**
@@ -869,18 +1305,200 @@ public class ChessBoard {
 	 * @return boolean - if the pieceType and turn have the right properties
 	 */
 	public boolean containsPieceAt(int[] position, PieceType pieceType, Turn turn) {
-		return containsPieceAt(position, pieceType) && getPieceAt(position).contains(turn);
+		return containsPieceAt(position[0], position[1], pieceType, turn);
 	}//end of containsPieceAt method
 
+	/**
+	 * Adds the possible moves of the mover to the list as packed moves (see PackedMove). This does not
+	 * take check in account, so some of the moves may leave the mover's king attacked.
+	 * @param list (MoveList) - the list to add the moves to
+	 */
+	public void generateMoves(MoveList list) {
+		MoveGenerator.generateMoves(this, turn, list);
+	}//end of generateMoves method
+	
+	/**
+	 * Adds the legal moves of the mover to the list as packed moves (see PackedMove)
+	 * @param list (MoveList) - the list to add the moves to
+	 */
+	public void generateLegalMoves(MoveList list) {
+		MoveGenerator.generateLegalMoves(this, turn, list);
+	}//end of generateLegalMoves method
+	
+	/**
+	 * Adds the legal moves of the turn given in to the list as packed moves (see PackedMove). Only the
+	 * mover can take enPassuant.
+	 * @param turn (Turn) - the turn of the pieces to move
+	 * @param list (MoveList) - the list to add the moves to
+	 */
+	public void generateLegalMoves(Turn turn, MoveList list) {
+		MoveGenerator.generateLegalMoves(this, turn, list);
+	}//end of generateLegalMoves method
+	
+	/**
+	 * Adds the legal takes and promotions of the mover to the list as packed moves (see PackedMove)
+	 * @param list (MoveList) - the list to add the moves to
+	 */
+	public void generateLegalCaptures(MoveList list) {
+		MoveGenerator.generateLegalCaptures(this, turn, list);
+	}//end of generateLegalCaptures method
+	
+	/**
+	 * Returns if the move puts the other turn's king in check. This is worked out from the attack
+	 * tables, without playing the move.
+	 * @param move (int) - a legal packed move
+	 * @return boolean - true if the move gives check
+	 */
+	public boolean givesCheck(int move) {
+		return MoveGenerator.givesCheck(this, move);
+	}//end of givesCheck method
+	
+	/**
+	 * Returns if any piece of the turn given in attacks the square. Pinned pieces still attack, since a
+	 * king can not move onto a square even if the attacker is pinned.
+	 * @param square (int) - the square index (see BitBoard)
+	 * @param bySide (Turn) - the turn of the attacking pieces
+	 * @return boolean - true if the square is attacked
+	 */
+	public boolean isSquareAttacked(int square, Turn bySide) {
+		return MoveGenerator.attackersOf(this, square, bySide, occupied) != 0;
+	}//end of isSquareAttacked method
+	
+	/**
+	 * Returns the pieces of both turns that attack the square. Use getBitBoard(turn) to keep the
+	 * attackers of one turn.
+	 * @param square (int) - the square index (see BitBoard)
+	 * @return long - the bitboard of the attacking pieces
+	 */
+	public long attackersOf(int square) {
+		return MoveGenerator.attackersOf(this, square, WHITE, occupied) | MoveGenerator.attackersOf(this, square, BLACK, occupied);
+	}//end of attackersOf method
+	
+	/**
+	 * Converts a legal packed move into a Move for the availableMoves. A promotion is left without a
+	 * promotion piece, since the player or the AI chooses it when the move is played.
+	 * @param move (int) - the packed move
+	 * @return Move - the move with its checked value set
+	 */
+	private Move toAvailableMove(int move) {
+		int start = PackedMove.getStart(move);
+		int end = PackedMove.getEnd(move);
+		int startX = BitBoard.getX(start);
+		int startY = BitBoard.getY(start);
+		return new Move(board[startX][startY], startX, startY, BitBoard.getX(end), BitBoard.getY(end), Piece.EMPTY_PIECE,
+				Piece.EMPTY_PIECE, PackedMove.isCastle(move) || PackedMove.isEnPassant(move), givesCheck(move));
+	}//end of toAvailableMove method
+	
+	/**
+	 * Returns the square that a pawn of the turn given in can move to when it takes enPassuant, which is
+	 * the square behind an enemy pawn that just moved two squares. Only the mover can take enPassuant.
+	 * @param turn (Turn) - the turn of the pawns that would take
+	 * @return int - the square index (see BitBoard), or -1 if no pawn can take enPassuant
+	 */
+	public int getEnPassantSquare(Turn turn) {
+		return turn == this.turn ? enPassantSquare : -1;
+	}//end of getEnPassantSquare method
+	
+	/**
+	 * Returns if the king of the turn given in can castle to one side. The turn must still have the
+	 * castling right (the king and the rook have not moved), and all the squares between them must be
+	 * empty. This does not check if the king is in check or passes through an attacked square.
+	 * @param turn (Turn) - the turn of the king
+	 * @param kingSide (boolean) - true to castle with the king side rook, false for the queen side rook
+	 * @return boolean - if the king can castle to that side
+	 */
+	public boolean canCastle(Turn turn, boolean kingSide) {
+		if (!hasCastlingRight(turn, kingSide)) {
+			return false;
+		}
+		
+		// check if all the places between is empty
+		int y = turn == WHITE ? WHITE_SIDE_YPOSITION : BLACK_SIDE_YPOSITION;
+		int rookX = kingSide ? KINGSIDE_ROOK_XPOSITION : QUEENSIDE_ROOK_XPOSITION;
+		int low = Math.min(rookX, KING_XPOSITION) + 1;
+		int high = Math.max(rookX, KING_XPOSITION);
+		long between = ((1L << high) - (1L << low)) << (y * LENGTH);
+		return (occupied & between) == 0;
+	}//end of canCastle method
+	
+	/**
+	 * Returns if the turn given in still has the right to castle to one side, which is if the king and
+	 * that rook have not moved and the rook has not been taken
+	 * @param turn (Turn) - the turn of the king
+	 * @param kingSide (boolean) - true for the king side rook, false for the queen side rook
+	 * @return boolean - if the turn has that castling right
+	 */
+	public boolean hasCastlingRight(Turn turn, boolean kingSide) {
+		return (castlingRights & castlingRight(turn, kingSide)) != 0;
+	}//end of hasCastlingRight method
+	
+	/**
+	 * Returns the castles that are still allowed
+	 * @return int - a combination of WHITE_KINGSIDE_CASTLE, WHITE_QUEENSIDE_CASTLE, BLACK_KINGSIDE_CASTLE
+	 *         and BLACK_QUEENSIDE_CASTLE
+	 */
+	public int getCastlingRights() {
+		return castlingRights;
+	}//end of getCastlingRights method
+	
+	/**
+	 * Returns the flag of a castling right
+	 * @param turn (Turn) - WHITE or BLACK
+	 * @param kingSide (boolean) - true for the King's side, false for the Queen's side
+	 * @return int - one of the _CASTLE flags
+	 */
+	private static int castlingRight(Turn turn, boolean kingSide) {
+		return 1 << (turn.ordinal() * 2 + (kingSide ? 0 : 1));
+	}//end of castlingRight method
+	
+	/**
+	 * Sets the castling rights and the enPassuant square from the board and the moveHistory. A castle is
+	 * allowed if the king and the rook are on their starting squares and neither has moved.
+	 */
+	private void initCastlingRights() {
+		castlingRights = 0;
+		for (Turn turn : new Turn[] { WHITE, BLACK }) {
+			int y = turn == WHITE ? WHITE_SIDE_YPOSITION : BLACK_SIDE_YPOSITION;
+			if (!hasNotMoved(KING_XPOSITION, y)) {
+				continue;
+			}
+			if (castlingPiecesHome(turn, true) && hasNotMoved(KINGSIDE_ROOK_XPOSITION, y)) {
+				castlingRights |= castlingRight(turn, true);
+			}
+			if (castlingPiecesHome(turn, false) && hasNotMoved(QUEENSIDE_ROOK_XPOSITION, y)) {
+				castlingRights |= castlingRight(turn, false);
+			}
+		}
+		
+		// the last move can only be a double pawn move if the board came with a moveHistory
+		Move lastMove = previousMove();
+		enPassantSquare = -1;
+		if (lastMove != null && lastMove.contains(PAWN) && Math.abs(lastMove.endY() - lastMove.startY()) == 2) {
+			enPassantSquare = BitBoard.square(lastMove.endX(), (lastMove.startY() + lastMove.endY()) / 2);
+		}
+	}//end of initCastlingRights method
+
+	/**
+	 * Returns if the king and the rook of a castle are on their starting squares
+	 * @param turn (Turn) - WHITE or BLACK
+	 * @param kingSide (boolean) - true for the King's side, false for the Queen's side
+	 * @return boolean - true if both pieces are on their starting squares
+	 */
+	private boolean castlingPiecesHome(Turn turn, boolean kingSide) {
+		int y = turn == WHITE ? WHITE_SIDE_YPOSITION : BLACK_SIDE_YPOSITION;
+		return containsPieceAt(KING_XPOSITION, y, KING, turn)
+				&& containsPieceAt(kingSide ? KINGSIDE_ROOK_XPOSITION : QUEENSIDE_ROOK_XPOSITION, y, ROOK, turn);
+	}//end of castlingPiecesHome method
+
 	/**
 	 * Returns if a certain piece has Moved
 	 * @param position (Int[]) - position of the piece 
 	 * @return boolean - Returns if a certain piece has moved
 	 */
 	public boolean hasNotMoved(int[] position) {
-		for (Move move : moveHistory) {
+		for (int i = 0; i < stateCount; i++) {
 			// check if anyone took the piece or if the piece has moved
-			if (move.hasPosition(position)) {
+			if (playedMove(i).hasPosition(position)) {
 				return false;
 			}
 		}
@@ -894,15 +1512,74 @@ public class ChessBoard {
 	 * @return boolean - Returns if a certain piece has moved
 	 */
 	public boolean hasNotMoved(int x, int y) {
-		for (Move move : moveHistory) {
+		for (int i = 0; i < stateCount; i++) {
 			// check if anyone took the piece or if the piece has moved
-			if (move.hasPosition(x, y)) {
+			if (playedMove(i).hasPosition(x, y)) {
 				return false;
 			}
 		}
 		return true;
 	}//end of hasNotMoved method
 	
+	/**
+	 * Returns the bitboard of the pieces with the pieceType and turn given in. <br>
+	 * pieceType EMPTY with turn NONE gives the empty squares.
+	 * @param pieceType (PieceType) - the pieceType of the pieces
+	 * @param turn (Turn) - the turn of the pieces
+	 * @return long - the bitboard of those pieces (see BitBoard)
+	 */
+	public long getBitBoard(PieceType pieceType, Turn turn) {
+		if (pieceType == EMPTY) {
+			return turn == NONE ? ~occupied : 0;
+		} else if (turn == NONE) {
+			return 0;
+		}
+		return pieceBoards[pieceType.ordinal() * 2 + turn.ordinal()];
+	}//end of getBitBoard method
+	
+	/**
+	 * Returns the bitboard of the pieces with the pieceType given in, for both turns.
+	 * EMPTY gives the empty squares
+	 * @param pieceType (PieceType) - the pieceType of the pieces
+	 * @return long - the bitboard of those pieces (see BitBoard)
+	 */
+	public long getBitBoard(PieceType pieceType) {
+		if (pieceType == EMPTY) {
+			return ~occupied;
+		}
+		return pieceBoards[pieceType.ordinal() * 2] | pieceBoards[pieceType.ordinal() * 2 + 1];
+	}//end of getBitBoard method
+	
+	/**
+	 * Returns the bitboard of all the pieces of the turn given in. NONE gives the empty squares
+	 * @param turn (Turn) - the turn of the pieces
+	 * @return long - the bitboard of those pieces (see BitBoard)
+	 */
+	public long getBitBoard(Turn turn) {
+		if (turn == NONE) {
+			return ~occupied;
+		}
+		return turnBoards[turn.ordinal()];
+	}//end of getBitBoard method
+	
+	/**
+	 * Returns the bitboard of every square that has a piece on it
+	 * @return long - the bitboard of all the pieces (see BitBoard)
+	 */
+	public long getOccupied() {
+		return occupied;
+	}//end of getOccupied method
+	
+	/**
+	 * Returns the number of pieces with the pieceType and turn given in
+	 * @param pieceType (PieceType) - the pieceType of the pieces
+	 * @param turn (Turn) - the turn of the pieces
+	 * @return int - the number of those pieces on the board
+	 */
+	public int countPieces(PieceType pieceType, Turn turn) {
+		return BitBoard.count(getBitBoard(pieceType, turn));
+	}//end of countPieces method
+	
 	/**
 	 * Return the default board position
 	 * @return Piece[][] the default board position
@@ -946,7 +1623,7 @@ public class ChessBoard {
 	 * @return boolean - true if piece is at certain position in the turn
 	 */
 	public boolean containsPieceAt(int x, int y, Turn turn) {
-		return getPieceAt(x, y).contains(turn);
+		return (getBitBoard(turn) & BitBoard.bit(x, y)) != 0;
 	}//end of containsPieceAt method
 	
 	/**
@@ -1008,5 +1685,117 @@ public class ChessBoard {
 	 */
 	public AI getAI() {
 		return ai;
-	}
-}//end of getAI method
\ No newline at end of file
+	}//end of getAI method
+	
+	/**
+	 * Everything makeMove changes that cannot be worked out from the move itself. One State is saved on
+	 * the undo stack for every move, and restored by unmakeMove. The move lists are kept by reference,
+	 * since they are never changed once they are generated.
+	 * 
+	 * @author frankliu197
+	 */
+	private static final class State {
+		/** The packed move that was played from this state */
+		private int move;
+		
+		/** If the move put the opponent in check, and the move as a Move once it is asked for (see playedMove) */
+		private boolean checked;
+		private Move playedMove;
+		
+		/** The turn before the move */
+		private Turn turn;
+		
+		/** The castling rights, enPassuant square, hash, halfmove clock and check streak before the move */
+		private int castlingRights;
+		private int enPassantSquare;
+		private long hash;
+		private int halfmoveClock;
+		private int checkStreak;
+		
+		/* The moves and check information of the position before the move, and if they were generated */
+		private boolean opponentMovesGenerated;
+		private boolean availableMovesGenerated;
+		private ArrayList<Move> availableMoves;
+		private ArrayList<Move> opponentPossibleMoves;
+		
+		/**
+		 * Saves the state of the chessBoard before the move is played
+		 * @param chessBoard (ChessBoard) - the chessBoard to save
+		 * @param move (int) - the packed move that is about to be played
+		 */
+		private void save(ChessBoard chessBoard, int move) {
+			this.move = move;
+			checked = false;
+			playedMove = null;
+			turn = chessBoard.turn;
+			castlingRights = chessBoard.castlingRights;
+			enPassantSquare = chessBoard.enPassantSquare;
+			hash = chessBoard.hash;
+			halfmoveClock = chessBoard.halfmoveClock;
+			checkStreak = chessBoard.checkStreak;
+			opponentMovesGenerated = chessBoard.opponentMovesGenerated;
+			availableMovesGenerated = chessBoard.availableMovesGenerated;
+			availableMoves = chessBoard.availableMoves;
+			opponentPossibleMoves = chessBoard.opponentPossibleMoves;
+		}//end of save method
+		
+		/**
+		 * Fills this State from a move of a snapshot's history. No moves were generated for that position.
+		 * @param node (Position.History) - the move and the position before it
+		 */
+		private void load(Position.History node) {
+			move = node.packedMove;
+			checked = node.move.isChecked();
+			playedMove = node.move;
+			turn = node.turn;
+			castlingRights = node.castlingRights;
+			enPassantSquare = node.enPassantSquare;
+			hash = node.hash;
+			halfmoveClock = node.halfmoveClock;
+			checkStreak = node.checkStreak;
+			opponentMovesGenerated = false;
+			availableMovesGenerated = false;
+			availableMoves = null;
+			opponentPossibleMoves = null;
+		}//end of load method
+		
+		/**
+		 * Puts the saved state back onto the chessBoard. The pieces must already be moved back.
+		 * @param chessBoard (ChessBoard) - the chessBoard to restore
+		 */
+		private void restore(ChessBoard chessBoard) {
+			chessBoard.turn = turn;
+			chessBoard.castlingRights = castlingRights;
+			chessBoard.enPassantSquare = enPassantSquare;
+			chessBoard.hash = hash;
+			chessBoard.halfmoveClock = halfmoveClock;
+			chessBoard.checkStreak = checkStreak;
+			chessBoard.opponentMovesGenerated = opponentMovesGenerated;
+			chessBoard.availableMovesGenerated = availableMovesGenerated;
+			chessBoard.availableMoves = availableMoves;
+			chessBoard.opponentPossibleMoves = opponentPossibleMoves;
+		}//end of restore method
+		
+		/**
+		 * Returns a copy of this State
+		 * @return State - a State with the same information
+		 */
+		private State copy() {
+			State state = new State();
+			state.move = move;
+			state.checked = checked;
+			state.playedMove = playedMove;
+			state.turn = turn;
+			state.castlingRights = castlingRights;
+			state.enPassantSquare = enPassantSquare;
+			state.hash = hash;
+			state.halfmoveClock = halfmoveClock;
+			state.checkStreak = checkStreak;
+			state.opponentMovesGenerated = opponentMovesGenerated;
+			state.availableMovesGenerated = availableMovesGenerated;
+			state.availableMoves = availableMoves;
+			state.opponentPossibleMoves = opponentPossibleMoves;
+			return state;
+		}//end of copy method
+	}//end of State class
+}//end of ChessBoard class
\ No newline at end of file
@@ -264,7 +264,9 @@ public class Display extends JPanel implements ActionListener {
 					iterator.resetIterator();
 					chessBoard = new ChessBoard(iterator.getStartingPosition(), iterator.getSpecificFileTurn());
 				} else {
+					stopPondering();
 					chessBoard = new ChessBoard(chessBoard.aiExists(), chessBoard.getAiLevel(), chessBoard.getAiTurn());
+					startPondering();
 				}
 				movePanel.reset();
 				resetGraphics();
@@ -351,6 +353,7 @@ public class Display extends JPanel implements ActionListener {
 		this.help = help;
 		this.movePanel = new MovePanel(this);
 		initializeBoard();
+		startPondering();
 	}// end of constructor
 	
 	/**
@@ -558,7 +561,7 @@ public class Display extends JPanel implements ActionListener {
 							startPos[1] = y;
 							canMove.addAll(chessBoard.getPieceAt(x, y).filterAvailableMoves(chessBoard.getAvailableMoves(),
 									startPos));
-							canMove.add(0, new Move(new Piece(), -1, -1, x, y));
+							canMove.add(0, new Move(Piece.EMPTY_PIECE, -1, -1, x, y));
 						}
 						break;
 					} // end of if button == display[x][y] if statement
@@ -750,7 +753,7 @@ public class Display extends JPanel implements ActionListener {
 			default: pieceType = EMPTY;
 			}
 			
-			move = new Move(move, move.getPieceTaken(), new Piece(move.getTurn(), pieceType), move.isSpecialMove());
+			move = new Move(move, move.getPieceTaken(), Piece.valueOf(move.getTurn(), pieceType), move.isSpecialMove());
 		} else if (ChessBoard.endOfBoard(move.endY()) && move.contains(PAWN)){
 			move = new Move(move, move.getPieceTaken(), chessBoard.getAI().getPromotion(), move.isSpecialMove());
 		}
@@ -790,11 +793,15 @@ public class Display extends JPanel implements ActionListener {
 					synchronized(Display.this){
 						AI ai = chessBoard.getAI();
 						move(chessBoard.getAIMove());
+						
+						// the board can change once this thread lets go of it, so the ponder position is taken now
+						Position position = chessBoard.snapshot();
 						if (ai.declaresDraw()) {
 							declareDraw();
 						} else if (ai.requestsDraw()) {
 							requestDraw();
 						}
+						startPondering(position);
 					}
 				}
 			});	
@@ -802,6 +809,38 @@ public class Display extends JPanel implements ActionListener {
 		}
 	}//end of Move method
 
+	/**
+	 * Lets the AI think on the player's time, so its next move comes faster. Only the AI levels that use
+	 * Search ponder.
+	 */
+	private void startPondering() {
+		if (chessBoard.aiExists() && chessBoard.isPlayerTurn()) {
+			startPondering(chessBoard.snapshot());
+		}
+	}//end of startPondering method
+	
+	/**
+	 * Lets the AI think on the player's time from a snapshot of the player's position, taken before the
+	 * player could move (see startPondering())
+	 * @param position (Position) - the position with the player to move
+	 */
+	private void startPondering(Position position) {
+		if (chessBoard.aiExists() && position.getTurn() != chessBoard.getAI().getTurn()) {
+			AI ai = chessBoard.getAI();
+			ai.setPondering(true);
+			ai.startPondering(position);
+		}
+	}//end of startPondering method
+
+	/**
+	 * Stops the AI from pondering, before the chessBoard is changed or replaced
+	 */
+	private void stopPondering() {
+		if (chessBoard.aiExists()) {
+			chessBoard.getAI().stopPondering();
+		}
+	}//end of stopPondering method
+
 	/**
 	 * Does proper Procedures for declaring a Draw
 	 */
@@ -851,6 +890,7 @@ public class Display extends JPanel implements ActionListener {
 	 * Undos the last move and updates the graphics and iterator
 	 */
 	public void undo() {
+		stopPondering();
 		chessBoard.undo();
 		movePanel.undo();
 		
@@ -870,6 +910,8 @@ public class Display extends JPanel implements ActionListener {
 		if (chessBoard.aiExists() && !chessBoard.isPlayerTurn() && canUndo()) {
 			undo();
 			resetGraphics();
+		} else {
+			startPondering();
 		}
 
 		setEnabledForButtons();
@@ -1046,7 +1088,9 @@ public class Display extends JPanel implements ActionListener {
 	 * @param aiLevel - (int) level of AI
 	 */
 	public void changePlayers(int aiLevel) {
+		stopPondering();
 		chessBoard = new ChessBoard(chessBoard, !chessBoard.aiExists(), aiLevel);
+		startPondering();
 	}
 	
 	/**
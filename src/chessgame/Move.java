@@ -43,7 +43,7 @@ public class Move implements Serializable, Cloneable {
 	 *            false, checked = false
 	 */
 	public Move(Piece piece, int[] startPosition, int[] endPosition) {
-		this(piece, startPosition, endPosition, new Piece(), new Piece(), false, false);
+		this(piece, startPosition, endPosition, Piece.EMPTY_PIECE, Piece.EMPTY_PIECE, false, false);
 	}
 
 	/**
@@ -87,7 +87,7 @@ public class Move implements Serializable, Cloneable {
 	 *            false, check = false
 	 */
 	public Move(Piece piece, int startX, int startY, int endX, int endY) {
-		this(piece, startX, startY, endX, endY , new Piece(), new Piece(), false, false);
+		this(piece, startX, startY, endX, endY , Piece.EMPTY_PIECE, Piece.EMPTY_PIECE, false, false);
 	}
 	
 	/**
@@ -398,7 +398,7 @@ public class Move implements Serializable, Cloneable {
 	 * @return boolean - true if the move contains a pawn being Promoted
 	 */
 	public boolean isPromoted(){
-		return !promotion.equals(new Piece());
+		return promotion != Piece.EMPTY_PIECE;
 	}
 	
 	/**
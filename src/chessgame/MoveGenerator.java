@@ -0,0 +1,500 @@
+package chessgame;
+
+import static chessgame.ChessBoard.*;
+import static pieces.PieceType.*;
+import static pieces.Turn.*;
+
+import pieces.Attacks;
+import pieces.Piece;
+import pieces.PieceType;
+import pieces.Turn;
+
+/**
+ * Generates packed moves (see PackedMove) straight from the bitboards of a chessBoard. Every
+ * piece's targets come from the attack tables in Attacks, so no Move objects or coordinate
+ * arrays are created. generateMoves gives the possible moves, and generateLegalMoves gives only
+ * the moves that do not leave the mover's king attacked.
+ *
+ * @author frankliu197
+ */
+final class MoveGenerator {
+	/** The pieceTypes a pawn can promote into, best first */
+	private static final PieceType[] PROMOTIONS = { QUEEN, KNIGHT, ROOK, BISHOP };
+
+	/** The row white pawns land on after moving one square from their starting row */
+	private static final long WHITE_PUSH_ROW = BitBoard.RANK_1 << 16;
+
+	/** The row black pawns land on after moving one square from their starting row */
+	private static final long BLACK_PUSH_ROW = BitBoard.RANK_8 >>> 16;
+
+	/** A bitboard with every square, used when the moves are not limited to some squares */
+	private static final long ALL = ~BitBoard.EMPTY;
+
+	/**
+	 * This class cannot be created
+	 */
+	private MoveGenerator() {
+	}
+
+	/**
+	 * Adds the possible moves of the turn given in to the list. This does not take check in account,
+	 * so the king may be left attacked, and castles are not checked for passing through an attacked
+	 * square.
+	 * @param chessBoard (ChessBoard) - the chessBoard to generate moves for
+	 * @param turn (Turn) - the turn of the pieces to move
+	 * @param list (MoveList) - the list to add the packed moves to
+	 */
+	static void generateMoves(ChessBoard chessBoard, Turn turn, MoveList list) {
+		long pawns = chessBoard.getBitBoard(PAWN, turn);
+		generatePawnMoves(chessBoard, turn, pawns, ALL, list);
+		addEnPassants(chessBoard, turn, pawns, -1, list);
+		generatePieceMoves(chessBoard, turn, ~pawns, ALL, list);
+		addMoves(chessBoard, list, chessBoard.getBitBoard(KING, turn), ~chessBoard.getBitBoard(turn));
+
+		if (chessBoard.canCastle(turn, true)) {
+			addCastle(turn, true, list);
+		}
+		if (chessBoard.canCastle(turn, false)) {
+			addCastle(turn, false, list);
+		}
+	}//end of generateMoves method
+
+	/**
+	 * Adds only the legal moves of the turn given in to the list. <br>
+	 * <br>
+	 * The pieces attacking the king and the pieces pinned to it are worked out once. When the king is
+	 * in check, the other pieces may only move onto the checkMask (the checking piece or the squares
+	 * between it and the king), and in double check only the king may move. A pinned piece may only
+	 * move along the line between the king and the piece pinning it. King moves and castles are
+	 * checked against the squares the enemy attacks, and enPassuant, which takes two pieces off the
+	 * same row, is checked by looking at the board after the move.
+	 * @param chessBoard (ChessBoard) - the chessBoard to generate moves for
+	 * @param turn (Turn) - the turn of the pieces to move
+	 * @param list (MoveList) - the list to add the packed moves to
+	 */
+	static void generateLegalMoves(ChessBoard chessBoard, Turn turn, MoveList list) {
+		generateLegalMoves(chessBoard, turn, false, list);
+	}//end of generateLegalMoves method
+
+	/**
+	 * Adds only the legal takes (including enPassuant) and promotions of the turn given in to the list,
+	 * for a search that only looks at moves that change the material
+	 * @param chessBoard (ChessBoard) - the chessBoard to generate moves for
+	 * @param turn (Turn) - the turn of the pieces to move
+	 * @param list (MoveList) - the list to add the packed moves to
+	 */
+	static void generateLegalCaptures(ChessBoard chessBoard, Turn turn, MoveList list) {
+		generateLegalMoves(chessBoard, turn, true, list);
+	}//end of generateLegalCaptures method
+
+	/**
+	 * Adds the legal moves of the turn given in to the list (see generateLegalMoves)
+	 * @param chessBoard (ChessBoard) - the chessBoard to generate moves for
+	 * @param turn (Turn) - the turn of the pieces to move
+	 * @param capturesOnly (boolean) - true to add only the takes and promotions
+	 * @param list (MoveList) - the list to add the packed moves to
+	 */
+	private static void generateLegalMoves(ChessBoard chessBoard, Turn turn, boolean capturesOnly, MoveList list) {
+		long kings = chessBoard.getBitBoard(KING, turn);
+		if (BitBoard.count(kings) != 1) {
+			generateLegalMovesSlowly(chessBoard, turn, capturesOnly, list);
+			return;
+		}
+
+		Turn enemyTurn = getOppositeTurn(turn);
+		int king = BitBoard.lowest(kings);
+		long own = chessBoard.getBitBoard(turn);
+		long enemy = chessBoard.getBitBoard(enemyTurn);
+		long occupied = chessBoard.getOccupied();
+		long pawns = chessBoard.getBitBoard(PAWN, turn);
+		long checkers = attackersOf(chessBoard, king, enemyTurn, occupied);
+
+		// the squares the pieces may move to. Pawns may also move onto the last rows to promote
+		long pieceTargets = capturesOnly ? enemy : ALL;
+		long pawnTargets = capturesOnly ? enemy | BitBoard.RANK_1 | BitBoard.RANK_8 : ALL;
+
+		// the king may not move onto an attacked square, or along the line of the slider checking it
+		long withoutKing = occupied ^ kings;
+		for (long targets = Attacks.kingAttacks(king) & ~own & pieceTargets; targets != 0; targets = BitBoard.popLowest(targets)) {
+			int end = BitBoard.lowest(targets);
+			if (attackersOf(chessBoard, end, enemyTurn, withoutKing) == 0) {
+				list.add(PackedMove.encode(king, end, chessBoard.getPieceIndexAt(king), chessBoard.getPieceIndexAt(end),
+						null, 0));
+			}
+		}
+
+		addEnPassants(chessBoard, turn, pawns, king, list);
+		if (BitBoard.count(checkers) > 1) {
+			return;
+		}
+
+		long checkMask = ALL;
+		if (checkers != 0) {
+			checkMask = checkers | Attacks.between(king, BitBoard.lowest(checkers));
+		} else if (!capturesOnly) {
+			addLegalCastle(chessBoard, turn, true, list);
+			addLegalCastle(chessBoard, turn, false, list);
+		}
+
+		// the pinned pieces can only move between the king and the piece pinning them
+		long pinned = 0;
+		long queens = chessBoard.getBitBoard(QUEEN, enemyTurn);
+		long snipers = (Attacks.rookAttacks(king, enemy) & (chessBoard.getBitBoard(ROOK, enemyTurn) | queens))
+				| (Attacks.bishopAttacks(king, enemy) & (chessBoard.getBitBoard(BISHOP, enemyTurn) | queens));
+		for (; snipers != 0; snipers = BitBoard.popLowest(snipers)) {
+			int sniper = BitBoard.lowest(snipers);
+			long blockers = Attacks.between(king, sniper) & occupied;
+			if (BitBoard.count(blockers) == 1 && (blockers & own) != 0) {
+				pinned |= blockers;
+				long pinMask = (Attacks.between(king, sniper) | BitBoard.bit(sniper)) & checkMask;
+				generatePawnMoves(chessBoard, turn, blockers & pawns, pinMask & pawnTargets, list);
+				generatePieceMoves(chessBoard, turn, blockers & ~pawns, pinMask & pieceTargets, list);
+			}
+		}
+
+		generatePawnMoves(chessBoard, turn, pawns & ~pinned, checkMask & pawnTargets, list);
+		generatePieceMoves(chessBoard, turn, own & ~pawns & ~kings & ~pinned, checkMask & pieceTargets, list);
+	}//end of generateLegalMoves method
+
+	/**
+	 * Returns the pieces of the turn given in that attack the square
+	 * @param chessBoard (ChessBoard) - the chessBoard the pieces are on
+	 * @param square (int) - the square that is attacked
+	 * @param turn (Turn) - the turn of the attacking pieces
+	 * @param occupied (long) - the squares that block sliding pieces
+	 * @return long - the bitboard of the attacking pieces
+	 */
+	static long attackersOf(ChessBoard chessBoard, int square, Turn turn, long occupied) {
+		long queens = chessBoard.getBitBoard(QUEEN, turn);
+		return (Attacks.pawnAttacks(square, getOppositeTurn(turn)) & chessBoard.getBitBoard(PAWN, turn))
+				| (Attacks.knightAttacks(square) & chessBoard.getBitBoard(KNIGHT, turn))
+				| (Attacks.kingAttacks(square) & chessBoard.getBitBoard(KING, turn))
+				| (Attacks.bishopAttacks(square, occupied) & (chessBoard.getBitBoard(BISHOP, turn) | queens))
+				| (Attacks.rookAttacks(square, occupied) & (chessBoard.getBitBoard(ROOK, turn) | queens));
+	}//end of attackersOf method
+
+	/**
+	 * Returns if any king of the turn given in is attacked by the other turn
+	 * @param chessBoard (ChessBoard) - the chessBoard the kings are on
+	 * @param turn (Turn) - the turn of the kings
+	 * @return boolean - true if a king of that turn is attacked
+	 */
+	static boolean kingAttacked(ChessBoard chessBoard, Turn turn) {
+		Turn enemyTurn = getOppositeTurn(turn);
+		for (long kings = chessBoard.getBitBoard(KING, turn); kings != 0; kings = BitBoard.popLowest(kings)) {
+			if (chessBoard.isSquareAttacked(BitBoard.lowest(kings), enemyTurn)) {
+				return true;
+			}
+		}
+		return false;
+	}//end of kingAttacked method
+
+	/**
+	 * Returns if a legal move puts the other turn's king in check, without playing it. The moved piece
+	 * (or the piece it promotes into, or the rook of a castle) may attack the king from its new square,
+	 * or a sliding piece may attack the king through the square that was left.
+	 * @param chessBoard (ChessBoard) - the chessBoard before the move
+	 * @param move (int) - the packed move
+	 * @return boolean - true if the move gives check
+	 */
+	static boolean givesCheck(ChessBoard chessBoard, int move) {
+		Turn turn = PackedMove.getTurn(move);
+		Turn enemyTurn = getOppositeTurn(turn);
+		long kings = chessBoard.getBitBoard(KING, enemyTurn);
+
+		// boards set up by hand may not have exactly one king, so the move is played instead
+		if (BitBoard.count(kings) != 1) {
+			chessBoard.makeMove(move);
+			boolean check = kingAttacked(chessBoard, enemyTurn);
+			chessBoard.unmakeMove();
+			return check;
+		}
+
+		int king = BitBoard.lowest(kings);
+		int start = PackedMove.getStart(move);
+		int end = PackedMove.getEnd(move);
+		long occupied = (chessBoard.getOccupied() & ~BitBoard.bit(start)) | BitBoard.bit(end);
+		// the pieces of the mover that are not on their squares in the bitboards anymore
+		long moved = BitBoard.bit(start);
+
+		if (PackedMove.isEnPassant(move)) {
+			occupied &= ~BitBoard.bit(BitBoard.getX(end), BitBoard.getY(start));
+		} else if (PackedMove.isCastle(move)) {
+			int y = BitBoard.getY(start);
+			boolean kingSide = end > start;
+			int rookStart = BitBoard.square(kingSide ? KINGSIDE_ROOK_XPOSITION : QUEENSIDE_ROOK_XPOSITION, y);
+			int rookEnd = BitBoard.square(kingSide ? KINGSIDE_CASTLED_ROOK_XPOSITION : QUEENSIDE_CASTLED_ROOK_XPOSITION, y);
+			occupied = (occupied & ~BitBoard.bit(rookStart)) | BitBoard.bit(rookEnd);
+			moved |= BitBoard.bit(rookStart);
+			if ((Attacks.rookAttacks(rookEnd, occupied) & kings) != 0) {
+				return true;
+			}
+		}
+
+		// direct check from the new square
+		PieceType pieceType = PackedMove.isPromotion(move) ? PackedMove.getPromotion(move)
+				: Piece.valueOf(PackedMove.getPiece(move)).getPieceType();
+		if ((Attacks.attacks(pieceType, end, turn, occupied) & kings) != 0) {
+			return true;
+		}
+
+		// discovered check from a slider that now sees the king
+		long queens = chessBoard.getBitBoard(QUEEN, turn);
+		long sliders = (Attacks.bishopAttacks(king, occupied) & (chessBoard.getBitBoard(BISHOP, turn) | queens))
+				| (Attacks.rookAttacks(king, occupied) & (chessBoard.getBitBoard(ROOK, turn) | queens));
+		return (sliders & ~moved) != 0;
+	}//end of givesCheck method
+
+	/**
+	 * Adds the legal moves of a position that does not have exactly one king of the turn given in (which
+	 * only happens with boards set up by hand). Every possible move is played and taken back, and kept if
+	 * it leaves no king of the mover attacked.
+	 * @param chessBoard (ChessBoard) - the chessBoard to generate moves for
+	 * @param turn (Turn) - the turn of the pieces to move
+	 * @param capturesOnly (boolean) - true to keep only the takes and promotions
+	 * @param list (MoveList) - the list to add the packed moves to
+	 */
+	private static void generateLegalMovesSlowly(ChessBoard chessBoard, Turn turn, boolean capturesOnly, MoveList list) {
+		int first = list.size();
+		generateMoves(chessBoard, turn, list);
+		boolean checked = kingAttacked(chessBoard, turn);
+
+		for (int i = first; i < list.size(); i++) {
+			int move = list.get(i);
+			chessBoard.makeMove(move);
+			boolean legal = !kingAttacked(chessBoard, turn);
+			chessBoard.unmakeMove();
+
+			if (!legal || (PackedMove.isCastle(move) && (checked || !castlePathSafe(chessBoard, turn, move)))
+					|| (capturesOnly && !PackedMove.isCapture(move) && !PackedMove.isPromotion(move))) {
+				list.remove(i--);
+			}
+		}
+	}//end of generateLegalMovesSlowly method
+
+	/**
+	 * Adds a move from every knight, bishop, rook and queen in pieces to each square they attack in
+	 * targets. Any pawns and kings in pieces are left out.
+	 * @param chessBoard (ChessBoard) - the chessBoard the moves are on
+	 * @param turn (Turn) - the turn of the pieces
+	 * @param pieces (long) - the bitboard of the knights, bishops, rooks and queens to move
+	 * @param targets (long) - the squares the pieces are allowed to move to
+	 * @param list (MoveList) - the list to add the packed moves to
+	 */
+	private static void generatePieceMoves(ChessBoard chessBoard, Turn turn, long pieces, long targets,
+			MoveList list) {
+		targets &= ~chessBoard.getBitBoard(turn);
+		long occupied = chessBoard.getOccupied();
+
+		addMoves(chessBoard, list, pieces & chessBoard.getBitBoard(KNIGHT, turn), targets, occupied, KNIGHT);
+		addMoves(chessBoard, list, pieces & chessBoard.getBitBoard(BISHOP, turn), targets, occupied, BISHOP);
+		addMoves(chessBoard, list, pieces & chessBoard.getBitBoard(ROOK, turn), targets, occupied, ROOK);
+		addMoves(chessBoard, list, pieces & chessBoard.getBitBoard(QUEEN, turn), targets, occupied, QUEEN);
+	}//end of generatePieceMoves method
+
+	/**
+	 * Adds a move from every square in pieces to each square in targets the pieceType attacks
+	 * @param chessBoard (ChessBoard) - the chessBoard the moves are on
+	 * @param list (MoveList) - the list to add the packed moves to
+	 * @param pieces (long) - the bitboard of the pieces to move, all with the pieceType given in
+	 * @param targets (long) - the squares the pieces are allowed to move to (empty or enemy pieces only)
+	 * @param occupied (long) - the bitboard of all the pieces on the board
+	 * @param pieceType (PieceType) - KNIGHT, BISHOP, ROOK or QUEEN
+	 */
+	private static void addMoves(ChessBoard chessBoard, MoveList list, long pieces, long targets, long occupied,
+			PieceType pieceType) {
+		for (; pieces != 0; pieces = BitBoard.popLowest(pieces)) {
+			int square = BitBoard.lowest(pieces);
+			long attacks = pieceType == KNIGHT ? Attacks.knightAttacks(square)
+					: Attacks.slidingAttacks(pieceType, square, occupied);
+			addMoves(chessBoard, list, square, attacks & targets);
+		}
+	}//end of addMoves method
+
+	/**
+	 * Adds a king move from every square in kings to each square it attacks in targets
+	 * @param chessBoard (ChessBoard) - the chessBoard the moves are on
+	 * @param list (MoveList) - the list to add the packed moves to
+	 * @param kings (long) - the bitboard of the kings to move
+	 * @param targets (long) - the squares the kings are allowed to move to (empty or enemy pieces only)
+	 */
+	private static void addMoves(ChessBoard chessBoard, MoveList list, long kings, long targets) {
+		for (; kings != 0; kings = BitBoard.popLowest(kings)) {
+			int square = BitBoard.lowest(kings);
+			addMoves(chessBoard, list, square, Attacks.kingAttacks(square) & targets);
+		}
+	}//end of addMoves method
+
+	/**
+	 * Adds a move from the square to every square in targets
+	 * @param chessBoard (ChessBoard) - the chessBoard the moves are on
+	 * @param list (MoveList) - the list to add the packed moves to
+	 * @param start (int) - the square of the piece moving
+	 * @param targets (long) - the bitboard of squares it moves to (empty or enemy pieces only)
+	 */
+	private static void addMoves(ChessBoard chessBoard, MoveList list, int start, long targets) {
+		int piece = chessBoard.getPieceIndexAt(start);
+		for (; targets != 0; targets = BitBoard.popLowest(targets)) {
+			int end = BitBoard.lowest(targets);
+			list.add(PackedMove.encode(start, end, piece, chessBoard.getPieceIndexAt(end), null, 0));
+		}
+	}//end of addMoves method
+
+	/**
+	 * Adds the pushes and captures of the pawns given in, including promotions. EnPassuant is added
+	 * by addEnPassants.
+	 * @param chessBoard (ChessBoard) - the chessBoard to generate moves for
+	 * @param turn (Turn) - the turn of the pawns
+	 * @param pawns (long) - the bitboard of the pawns to move
+	 * @param targets (long) - the squares the pawns are allowed to move to
+	 * @param list (MoveList) - the list to add the packed moves to
+	 */
+	private static void generatePawnMoves(ChessBoard chessBoard, Turn turn, long pawns, long targets, MoveList list) {
+		if (pawns == 0) {
+			return;
+		}
+
+		int piece = PAWN.ordinal() * 2 + turn.ordinal();
+		long empty = ~chessBoard.getOccupied();
+		long enemy = chessBoard.getBitBoard(getOppositeTurn(turn)) & targets;
+
+		// the pawns moving forward, as the squares they land on
+		long singlePushes, doublePushes;
+		int forward;
+		if (turn == WHITE) {
+			singlePushes = (pawns << 8) & empty;
+			doublePushes = ((singlePushes & WHITE_PUSH_ROW) << 8) & empty;
+			forward = 8;
+		} else {
+			singlePushes = (pawns >>> 8) & empty;
+			doublePushes = ((singlePushes & BLACK_PUSH_ROW) >>> 8) & empty;
+			forward = -8;
+		}
+		singlePushes &= targets;
+		doublePushes &= targets;
+
+		for (; singlePushes != 0; singlePushes = BitBoard.popLowest(singlePushes)) {
+			int end = BitBoard.lowest(singlePushes);
+			addPawnMove(list, end - forward, end, piece, Piece.EMPTY_INDEX);
+		}
+		for (; doublePushes != 0; doublePushes = BitBoard.popLowest(doublePushes)) {
+			int end = BitBoard.lowest(doublePushes);
+			list.add(PackedMove.encode(end - 2 * forward, end, piece, Piece.EMPTY_INDEX, null, PackedMove.DOUBLE_PUSH));
+		}
+
+		// the taking cases
+		for (long attackers = pawns; attackers != 0; attackers = BitBoard.popLowest(attackers)) {
+			int start = BitBoard.lowest(attackers);
+			for (long captures = Attacks.pawnAttacks(start, turn) & enemy; captures != 0; captures = BitBoard.popLowest(captures)) {
+				int end = BitBoard.lowest(captures);
+				addPawnMove(list, start, end, piece, chessBoard.getPieceIndexAt(end));
+			}
+		}
+	}//end of generatePawnMoves method
+
+	/**
+	 * Adds the enPassuants of the pawns given in
+	 * @param chessBoard (ChessBoard) - the chessBoard to generate moves for
+	 * @param turn (Turn) - the turn of the pawns
+	 * @param pawns (long) - the bitboard of the pawns that may take
+	 * @param king (int) - the square of the mover's king, which may not be attacked after the move, or
+	 *            -1 to add the enPassuants without checking
+	 * @param list (MoveList) - the list to add the packed moves to
+	 */
+	private static void addEnPassants(ChessBoard chessBoard, Turn turn, long pawns, int king, MoveList list) {
+		int enPassantSquare = chessBoard.getEnPassantSquare(turn);
+		if (enPassantSquare < 0) {
+			return;
+		}
+
+		Turn enemyTurn = getOppositeTurn(turn);
+		int piece = PAWN.ordinal() * 2 + turn.ordinal();
+		int taken = PAWN.ordinal() * 2 + enemyTurn.ordinal();
+		long takenPawn = BitBoard.bit(enPassantSquare + (turn == WHITE ? -8 : 8));
+		long attackers = Attacks.pawnAttacks(enPassantSquare, enemyTurn) & pawns;
+
+		for (; attackers != 0; attackers = BitBoard.popLowest(attackers)) {
+			int start = BitBoard.lowest(attackers);
+			if (king >= 0) {
+				// the board after the move, without the taken pawn
+				long occupied = (chessBoard.getOccupied() ^ BitBoard.bit(start) ^ takenPawn) | BitBoard.bit(enPassantSquare);
+				if ((attackersOf(chessBoard, king, enemyTurn, occupied) & ~takenPawn) != 0) {
+					continue;
+				}
+			}
+			list.add(PackedMove.encode(start, enPassantSquare, piece, taken, null, PackedMove.EN_PASSANT));
+		}
+	}//end of addEnPassants method
+
+	/**
+	 * Adds a pawn move, or all four promotions if the pawn reaches the end of the board
+	 * @param list (MoveList) - the list to add the packed moves to
+	 * @param start (int) - the square of the pawn
+	 * @param end (int) - the square the pawn moves to
+	 * @param piece (int) - the index of the pawn
+	 * @param taken (int) - the index of the piece taken
+	 */
+	private static void addPawnMove(MoveList list, int start, int end, int piece, int taken) {
+		if (endOfBoard(BitBoard.getY(end))) {
+			for (PieceType promotion : PROMOTIONS) {
+				list.add(PackedMove.encode(start, end, piece, taken, promotion, 0));
+			}
+		} else {
+			list.add(PackedMove.encode(start, end, piece, taken, null, 0));
+		}
+	}//end of addPawnMove method
+
+	/**
+	 * Adds the castle to one side if the king and rook have not moved, the squares between them are
+	 * empty, and the king does not pass through or land on an attacked square. The king must not be in
+	 * check.
+	 * @param chessBoard (ChessBoard) - the chessBoard to generate moves for
+	 * @param turn (Turn) - the turn of the king
+	 * @param kingSide (boolean) - true to castle with the king side rook, false for the queen side rook
+	 * @param list (MoveList) - the list to add the packed move to
+	 */
+	private static void addLegalCastle(ChessBoard chessBoard, Turn turn, boolean kingSide, MoveList list) {
+		if (chessBoard.canCastle(turn, kingSide)) {
+			int size = list.size();
+			addCastle(turn, kingSide, list);
+			if (!castlePathSafe(chessBoard, turn, list.get(size))) {
+				list.remove(size);
+			}
+		}
+	}//end of addLegalCastle method
+
+	/**
+	 * Returns if the squares the king moves through and onto in a castle are not attacked
+	 * @param chessBoard (ChessBoard) - the chessBoard before the castle
+	 * @param turn (Turn) - the turn of the king
+	 * @param move (int) - the packed castle
+	 * @return boolean - true if none of the squares are attacked
+	 */
+	private static boolean castlePathSafe(ChessBoard chessBoard, Turn turn, int move) {
+		Turn enemyTurn = getOppositeTurn(turn);
+		int start = PackedMove.getStart(move);
+		int end = PackedMove.getEnd(move);
+		int step = end > start ? 1 : -1;
+
+		for (int square = start + step; square != end + step; square += step) {
+			if (chessBoard.isSquareAttacked(square, enemyTurn)) {
+				return false;
+			}
+		}
+		return true;
+	}//end of castlePathSafe method
+
+	/**
+	 * Adds the castle of the turn given in to one side
+	 * @param turn (Turn) - the turn of the king
+	 * @param kingSide (boolean) - true to castle with the king side rook, false for the queen side rook
+	 * @param list (MoveList) - the list to add the packed move to
+	 */
+	private static void addCastle(Turn turn, boolean kingSide, MoveList list) {
+		int y = turn == WHITE ? WHITE_SIDE_YPOSITION : BLACK_SIDE_YPOSITION;
+		int king = KING.ordinal() * 2 + turn.ordinal();
+		int start = BitBoard.square(KING_XPOSITION, y);
+		int end = BitBoard.square(kingSide ? KINGSIDE_CASTLED_KING_XPOSITION : QUEENSIDE_CASTLED_KING_XPOSITION, y);
+		list.add(PackedMove.encode(start, end, king, Piece.EMPTY_INDEX, null, PackedMove.CASTLE));
+	}//end of addCastle method
+}//end of MoveGenerator class
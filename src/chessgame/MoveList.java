@@ -0,0 +1,152 @@
+package chessgame;
+
+import java.util.ArrayList;
+
+/**
+ * A reusable list of packed moves (see PackedMove) backed by an int array. A search keeps one
+ * MoveList for every ply and clears it instead of creating a new list for every position.
+ *
+ * @author frankliu197
+ */
+public class MoveList {
+	/** The most moves a position can have (the real maximum is 218) */
+	public static final int MAX_MOVES = 256;
+
+	/** The packed moves in this list */
+	private final int[] moves;
+
+	/** The number of moves in this list */
+	private int size;
+
+	/**
+	 * Creates an empty MoveList that can hold MAX_MOVES moves
+	 */
+	public MoveList() {
+		moves = new int[MAX_MOVES];
+	}//end of constructor
+
+	/**
+	 * Creates one MoveList for every ply of a search
+	 * @param plies (int) - the number of plies
+	 * @return MoveList[] - an array of empty MoveLists
+	 */
+	public static MoveList[] createStack(int plies) {
+		MoveList[] stack = new MoveList[plies];
+		for (int i = 0; i < plies; i++) {
+			stack[i] = new MoveList();
+		}
+		return stack;
+	}//end of createStack method
+
+	/**
+	 * Adds a packed move to the end of the list
+	 * @param move (int) - the packed move
+	 */
+	public void add(int move) {
+		moves[size++] = move;
+	}//end of add method
+
+	/**
+	 * Returns the packed move at the index given in
+	 * @param index (int) - the index of the move
+	 * @return int - the packed move
+	 */
+	public int get(int index) {
+		return moves[index];
+	}//end of get method
+
+	/**
+	 * Replaces the packed move at the index given in
+	 * @param index (int) - the index of the move
+	 * @param move (int) - the new packed move
+	 */
+	public void set(int index, int move) {
+		moves[index] = move;
+	}//end of set method
+
+	/**
+	 * Swaps two of the moves in the list
+	 * @param i (int) - index of the first move
+	 * @param j (int) - index of the second move
+	 */
+	public void swap(int i, int j) {
+		int move = moves[i];
+		moves[i] = moves[j];
+		moves[j] = move;
+	}//end of swap method
+
+	/**
+	 * Removes the move at the index by moving the last move into its place. This does not keep the
+	 * order of the list.
+	 * @param index (int) - the index of the move to remove
+	 */
+	public void remove(int index) {
+		moves[index] = moves[--size];
+	}//end of remove method
+
+	/**
+	 * Returns the number of moves in the list
+	 * @return int - the number of moves
+	 */
+	public int size() {
+		return size;
+	}//end of size method
+
+	/**
+	 * Returns if there are no moves in the list
+	 * @return boolean - true if the list is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}//end of isEmpty method
+
+	/**
+	 * Removes every move in the list
+	 */
+	public void clear() {
+		size = 0;
+	}//end of clear method
+
+	/**
+	 * Returns if the list contains the packed move
+	 * @param move (int) - the packed move
+	 * @return boolean - true if it is in the list
+	 */
+	public boolean contains(int move) {
+		for (int i = 0; i < size; i++) {
+			if (moves[i] == move) {
+				return true;
+			}
+		}
+		return false;
+	}//end of contains method
+
+	/**
+	 * Converts every move in the list into a Move object. This should only be used at the GUI and
+	 * file boundaries.
+	 * @return ArrayList<Move> - the moves in this list as Move objects
+	 */
+	public ArrayList<Move> toMoves() {
+		ArrayList<Move> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(PackedMove.toMove(moves[i]));
+		}
+		return list;
+	}//end of toMoves method
+
+	@Override
+	/**
+	 * Returns every move in the list
+	 * @return String - the moves in the list, written like an ArrayList
+	 */
+	public String toString() {
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(PackedMove.toString(moves[i]));
+		}
+		return builder.append(']').toString();
+	}//end of toString method
+}//end of MoveList class
@@ -0,0 +1,240 @@
+package chessgame;
+
+import static pieces.PieceType.*;
+
+import pieces.Piece;
+import pieces.PieceType;
+import pieces.Turn;
+
+/**
+ * This class packs a move into a single int, so that search code can make and store moves without
+ * creating Move objects. The bits are used as follows: <br>
+ * <br>
+ * <b>0 - 5</b> the start square (see BitBoard) <br>
+ * <b>6 - 11</b> the end square <br>
+ * <b>12 - 15</b> the index of the piece that moved (see Piece.getIndex()) <br>
+ * <b>16 - 19</b> the index of the piece that was taken, or Piece.EMPTY_INDEX <br>
+ * <b>20 - 22</b> the ordinal of the PieceType the pawn is promoted into, or 0 if it is not a promotion <br>
+ * <b>23 - 25</b> the CASTLE, EN_PASSANT and DOUBLE_PUSH flags <br>
+ * <br>
+ * Use toMove and valueOf to convert to and from Move objects at the GUI and file boundaries.
+ *
+ * @author frankliu197
+ */
+public final class PackedMove {
+	/** A value that is never a real move */
+	public static final int NONE = 0;
+
+	/** Flag of a castle. The start and end squares are the squares of the king */
+	public static final int CASTLE = 1 << 23;
+
+	/** Flag of an enPassuant. The end square is the empty square the pawn moves to */
+	public static final int EN_PASSANT = 1 << 24;
+
+	/** Flag of a pawn moving two squares forward */
+	public static final int DOUBLE_PUSH = 1 << 25;
+
+	/** All the pieceTypes, by ordinal */
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+	/* Shifts and masks of every part of the move */
+	private static final int END_SHIFT = 6;
+	private static final int PIECE_SHIFT = 12;
+	private static final int TAKEN_SHIFT = 16;
+	private static final int PROMOTION_SHIFT = 20;
+	private static final int SQUARE_MASK = 0x3F;
+	private static final int INDEX_MASK = 0xF;
+	private static final int PROMOTION_MASK = 0x7;
+
+	/**
+	 * This class cannot be created
+	 */
+	private PackedMove() {
+	}
+
+	/**
+	 * Packs a move
+	 * @param start (int) - the start square
+	 * @param end (int) - the end square
+	 * @param piece (int) - the index of the piece moving
+	 * @param taken (int) - the index of the piece taken, or Piece.EMPTY_INDEX
+	 * @param promotion (PieceType) - the pieceType to promote into, or null if it is not a promotion
+	 * @param flags (int) - CASTLE, EN_PASSANT, DOUBLE_PUSH or 0
+	 * @return int - the packed move
+	 */
+	public static int encode(int start, int end, int piece, int taken, PieceType promotion, int flags) {
+		int promotionBits = promotion == null ? 0 : promotion.ordinal();
+		return start | (end << END_SHIFT) | (piece << PIECE_SHIFT) | (taken << TAKEN_SHIFT)
+				| (promotionBits << PROMOTION_SHIFT) | flags;
+	}//end of encode method
+
+	/**
+	 * Returns the start square of the move
+	 * @param move (int) - the packed move
+	 * @return int - the start square
+	 */
+	public static int getStart(int move) {
+		return move & SQUARE_MASK;
+	}//end of getStart method
+
+	/**
+	 * Returns the end square of the move
+	 * @param move (int) - the packed move
+	 * @return int - the end square
+	 */
+	public static int getEnd(int move) {
+		return (move >>> END_SHIFT) & SQUARE_MASK;
+	}//end of getEnd method
+
+	/**
+	 * Returns the index of the piece that moved
+	 * @param move (int) - the packed move
+	 * @return int - the piece index (see Piece.getIndex())
+	 */
+	public static int getPiece(int move) {
+		return (move >>> PIECE_SHIFT) & INDEX_MASK;
+	}//end of getPiece method
+
+	/**
+	 * Returns the index of the piece that was taken
+	 * @param move (int) - the packed move
+	 * @return int - the piece index, or Piece.EMPTY_INDEX if nothing is taken
+	 */
+	public static int getTaken(int move) {
+		return (move >>> TAKEN_SHIFT) & INDEX_MASK;
+	}//end of getTaken method
+
+	/**
+	 * Returns the pieceType the pawn is promoted into
+	 * @param move (int) - the packed move
+	 * @return PieceType - the promotion, or null if it is not a promotion
+	 */
+	public static PieceType getPromotion(int move) {
+		int promotion = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+		return promotion == 0 ? null : PIECE_TYPES[promotion];
+	}//end of getPromotion method
+
+	/**
+	 * Returns the turn of the piece that moved
+	 * @param move (int) - the packed move
+	 * @return Turn - the turn of the mover
+	 */
+	public static Turn getTurn(int move) {
+		return Turn.valueOf(getPiece(move) & 1);
+	}//end of getTurn method
+
+	/**
+	 * Returns if the move takes a piece (including enPassuant)
+	 * @param move (int) - the packed move
+	 * @return boolean - true if a piece is taken
+	 */
+	public static boolean isCapture(int move) {
+		return getTaken(move) != Piece.EMPTY_INDEX;
+	}//end of isCapture method
+
+	/**
+	 * Returns if the move is a promotion
+	 * @param move (int) - the packed move
+	 * @return boolean - true if a pawn is promoted
+	 */
+	public static boolean isPromotion(int move) {
+		return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+	}//end of isPromotion method
+
+	/**
+	 * Returns if the move is a castle
+	 * @param move (int) - the packed move
+	 * @return boolean - true if it is a castle
+	 */
+	public static boolean isCastle(int move) {
+		return (move & CASTLE) != 0;
+	}//end of isCastle method
+
+	/**
+	 * Returns if the move is an enPassuant
+	 * @param move (int) - the packed move
+	 * @return boolean - true if it is an enPassuant
+	 */
+	public static boolean isEnPassant(int move) {
+		return (move & EN_PASSANT) != 0;
+	}//end of isEnPassant method
+
+	/**
+	 * Returns if the move is a pawn moving two squares
+	 * @param move (int) - the packed move
+	 * @return boolean - true if it is a double pawn push
+	 */
+	public static boolean isDoublePush(int move) {
+		return (move & DOUBLE_PUSH) != 0;
+	}//end of isDoublePush method
+
+	/**
+	 * Returns if the two moves move the same piece from the same square to the same square, ignoring
+	 * the promotion
+	 * @param move1 (int) - a packed move
+	 * @param move2 (int) - a packed move
+	 * @return boolean - true if they have the same start square, end square and piece
+	 */
+	public static boolean sameSquares(int move1, int move2) {
+		int mask = SQUARE_MASK | (SQUARE_MASK << END_SHIFT) | (INDEX_MASK << PIECE_SHIFT);
+		return (move1 & mask) == (move2 & mask);
+	}//end of sameSquares method
+
+	/**
+	 * Converts the packed move into a Move object. This should only be used at the GUI and file
+	 * boundaries.
+	 * @param move (int) - the packed move
+	 * @return Move - the same move as a Move object
+	 */
+	public static Move toMove(int move) {
+		int start = getStart(move);
+		int end = getEnd(move);
+		Turn turn = getTurn(move);
+		Piece promotion = isPromotion(move) ? Piece.valueOf(turn, getPromotion(move)) : Piece.EMPTY_PIECE;
+
+		return new Move(Piece.valueOf(getPiece(move)), BitBoard.getX(start), BitBoard.getY(start), BitBoard.getX(end),
+				BitBoard.getY(end), Piece.valueOf(getTaken(move)), promotion, isCastle(move) || isEnPassant(move), false);
+	}//end of toMove method
+
+	/**
+	 * Packs a Move object that is played on the chessBoard given in. If the move takes a pawn to the
+	 * end of the board without a promotion, it is promoted into a QUEEN.
+	 * @param move (Move) - the move to pack
+	 * @param chessBoard (ChessBoard) - the chessBoard before the move is played
+	 * @return int - the packed move
+	 */
+	public static int valueOf(Move move, ChessBoard chessBoard) {
+		int start = BitBoard.square(move.startX(), move.startY());
+		int end = BitBoard.square(move.endX(), move.endY());
+		int piece = move.getPiece().getIndex();
+		int taken = chessBoard.getPieceAt(move.endX(), move.endY()).getIndex();
+		PieceType promotion = null;
+		int flags = 0;
+
+		if (move.hasCastled()) {
+			flags = CASTLE;
+		} else if (move.hasEnpassuant()) {
+			flags = EN_PASSANT;
+			taken = chessBoard.getPieceAt(move.endX(), move.startY()).getIndex();
+		} else if (move.contains(PAWN) && ChessBoard.endOfBoard(move.endY())) {
+			promotion = move.isPromoted() && !move.getPromotion().isEmpty() ? move.getPromotion().getPieceType() : QUEEN;
+		} else if (move.contains(PAWN) && Math.abs(move.endY() - move.startY()) == 2) {
+			flags = DOUBLE_PUSH;
+		}
+		return encode(start, end, piece, taken, promotion, flags);
+	}//end of valueOf method
+
+	/**
+	 * Returns a string representation of the packed move, written the same way as Move.toString()
+	 * @param move (int) - the packed move
+	 * @return String - e.g. pe2-e4
+	 */
+	public static String toString(int move) {
+		int start = getStart(move);
+		int end = getEnd(move);
+		String promotion = isPromotion(move) ? "=" + getPromotion(move) : "";
+		return PIECE_TYPES[getPiece(move) >> 1] + Display.getLetter(BitBoard.getX(start))
+				+ (BitBoard.getY(start) + 1) + "-" + Display.getLetter(BitBoard.getX(end)) + (BitBoard.getY(end) + 1)
+				+ promotion;
+	}//end of toString method
+}//end of PackedMove class
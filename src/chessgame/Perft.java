@@ -0,0 +1,193 @@
+package chessgame;
+
+import static pieces.Turn.*;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft (performance test) counts every position that can be reached from a chessBoard in a number of
+ * moves. The counts of well known positions are published, so a wrong count means the move generator
+ * has a bug, and the time it takes is a benchmark of the move generator. <br>
+ * <br>
+ * divide gives the count of every move from the root, which is used to find the move that is wrong.
+ * The root moves can be split across a ForkJoinPool, where every task searches its own copy of the
+ * chessBoard. <br>
+ * <br>
+ * Usage: java chessgame.Perft depth [threads] [fen] <br>
+ * The starting position has 20, 400, 8902, 197281 and 4865609 positions at depths 1 to 5. The
+ * "Kiwipete" position r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1, which has
+ * every special move, has 48, 2039, 97862 and 4085603.
+ *
+ * @author frankliu197
+ */
+public final class Perft {
+	/**
+	 * This class cannot be created
+	 */
+	private Perft() {
+	}
+
+	/**
+	 * Runs a divide and prints the counts, the time and the nodes per second
+	 * @param args (String[]) - the depth, the number of threads to use (1 searches on this thread), and
+	 *            the FEN of the position (the starting position if it is left out)
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.out.println("Usage: java chessgame.Perft depth [threads] [fen]");
+			return;
+		}
+		int depth = Integer.parseInt(args[0]);
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		// the fields of the FEN may come in as separate arguments
+		ChessBoard chessBoard = new ChessBoard(false, 0, WHITE);
+		if (args.length > 2) {
+			chessBoard = new ChessBoard(String.join(" ", Arrays.copyOfRange(args, 2, args.length)));
+		}
+		long start = System.nanoTime();
+		long nodes = divide(chessBoard, depth, threads, System.out);
+		long time = System.nanoTime() - start;
+
+		System.out.println();
+		System.out.println("Nodes: " + nodes);
+		System.out.println("Time: " + time / 1000000 + " ms");
+		System.out.println("Nodes per second: " + (long) (nodes / (time / 1e9)));
+	}//end of main method
+
+	/**
+	 * Returns the number of positions that are reached after depth moves from the chessBoard. The
+	 * chessBoard is left as it was.
+	 * @param chessBoard (ChessBoard) - the position to start from
+	 * @param depth (int) - the number of moves to play
+	 * @return long - the number of positions
+	 */
+	public static long perft(ChessBoard chessBoard, int depth) {
+		if (depth <= 0) {
+			return 1;
+		}
+		return perft(chessBoard, depth, MoveList.createStack(depth));
+	}//end of perft method
+
+	/**
+	 * Prints the number of positions after every legal root move, and returns the total.
+	 * @param chessBoard (ChessBoard) - the position to start from. It is not changed
+	 * @param depth (int) - the number of moves to play, including the root move
+	 * @param threads (int) - the number of threads to split the root moves across. 1 searches on the
+	 *            calling thread
+	 * @param out (PrintStream) - where to print the count of every root move, or null to not print
+	 * @return long - the number of positions
+	 */
+	public static long divide(ChessBoard chessBoard, int depth, int threads, PrintStream out) {
+		if (depth <= 0) {
+			return 1;
+		}
+
+		MoveList rootMoves = new MoveList();
+		chessBoard.generateLegalMoves(rootMoves);
+
+		ArrayList<RootMove> tasks = new ArrayList<>(rootMoves.size());
+		for (int i = 0; i < rootMoves.size(); i++) {
+			tasks.add(new RootMove(chessBoard, rootMoves.get(i), depth - 1));
+		}
+
+		if (threads > 1) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				for (RootMove task : tasks) {
+					pool.execute(task);
+				}
+				for (RootMove task : tasks) {
+					task.join();
+				}
+			} finally {
+				pool.shutdown();
+			}
+		} else {
+			for (RootMove task : tasks) {
+				task.invoke();
+			}
+		}
+
+		long total = 0;
+		for (RootMove task : tasks) {
+			long nodes = task.join();
+			total += nodes;
+			if (out != null) {
+				out.println(PackedMove.toString(task.move) + ": " + nodes);
+			}
+		}
+		return total;
+	}//end of divide method
+
+	/**
+	 * Counts the positions, using one MoveList from the stack for every ply
+	 * @param chessBoard (ChessBoard) - the position to count from
+	 * @param depth (int) - the number of moves left to play, at least 1
+	 * @param stack (MoveList[]) - the MoveLists, one for every ply left
+	 * @return long - the number of positions
+	 */
+	private static long perft(ChessBoard chessBoard, int depth, MoveList[] stack) {
+		MoveList moves = stack[depth - 1];
+		moves.clear();
+		chessBoard.generateLegalMoves(moves);
+
+		// every legal move reaches one position, so the last ply does not need to be played
+		if (depth == 1) {
+			return moves.size();
+		}
+
+		long nodes = 0;
+		for (int i = 0; i < moves.size(); i++) {
+			chessBoard.makeMove(moves.get(i));
+			nodes += perft(chessBoard, depth - 1, stack);
+			chessBoard.unmakeMove();
+		}
+		return nodes;
+	}//end of perft method
+
+	/**
+	 * The count of one root move. Every RootMove searches its own copy of the chessBoard, so they can
+	 * run at the same time.
+	 *
+	 * @author frankliu197
+	 */
+	private static final class RootMove extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+
+		/** The copy of the chessBoard this task searches */
+		private final ChessBoard chessBoard;
+
+		/** The packed root move */
+		private final int move;
+
+		/** The number of moves to play after the root move */
+		private final int depth;
+
+		/**
+		 * Creates the task for a root move
+		 * @param chessBoard (ChessBoard) - the root position, which is copied
+		 * @param move (int) - the packed root move
+		 * @param depth (int) - the number of moves to play after the root move
+		 */
+		private RootMove(ChessBoard chessBoard, int move, int depth) {
+			this.chessBoard = new ChessBoard(chessBoard);
+			this.move = move;
+			this.depth = depth;
+		}//end of constructor
+
+		@Override
+		/**
+		 * Plays the root move and counts the positions after it
+		 * @return Long - the number of positions
+		 */
+		protected Long compute() {
+			chessBoard.makeMove(move);
+			return perft(chessBoard, depth);
+		}//end of compute method
+	}//end of RootMove class
+}//end of Perft class
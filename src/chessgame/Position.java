@@ -0,0 +1,269 @@
+package chessgame;
+
+import static pieces.Turn.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import pieces.Piece;
+import pieces.PieceType;
+import pieces.Turn;
+
+/**
+ * An immutable snapshot of a chessBoard (see ChessBoard.snapshot()). It holds the pieces, the turn, the
+ * castling rights, the enPassuant square, the hash and the moves played to get there. Nothing in a
+ * Position can change after it is made, so it can be read from any thread (the GUI thread while the AI
+ * searches, or many search threads at once) without locks. new ChessBoard(position) makes a chessBoard
+ * that can be played from it. <br>
+ * <br>
+ * The moves are kept in a linked History where every node points to the one before it, so the snapshots
+ * of a game share the moves they have in common instead of copying them.
+ *
+ * @author frankliu197
+ */
+public final class Position {
+	/** The bitboards of every kind of piece. Use pieceBoards[piece.getIndex()] */
+	private final long[] pieceBoards;
+
+	/** The turn to move */
+	private final Turn turn;
+
+	/** The castles that are still allowed, as a combination of the _CASTLE flags in ChessBoard */
+	private final int castlingRights;
+
+	/** The square behind a pawn that just moved two squares, or -1 */
+	private final int enPassantSquare;
+
+	/** The Zobrist hash of this position (see Zobrist) */
+	private final long hash;
+
+	/** The number of moves since the last pawn move or take */
+	private final int halfmoveClock;
+
+	/** The number of moves in a row, up to the last move, that put the opponent in check */
+	private final int checkStreak;
+
+	/** The number of moves played in the game before the first move of the history (see ChessBoard(String)) */
+	private final int startingPly;
+
+	/** The last move played, which links to every move before it, or null if no move was played */
+	private final History history;
+
+	/**
+	 * Creates a snapshot. The bitboards are copied, so the chessBoard can keep changing.
+	 * @param pieceBoards (long[]) - the bitboards of every kind of piece
+	 * @param turn (Turn) - the turn to move
+	 * @param castlingRights (int) - the castling rights
+	 * @param enPassantSquare (int) - the enPassuant square, or -1
+	 * @param hash (long) - the hash of the position
+	 * @param halfmoveClock (int) - the number of moves since the last pawn move or take
+	 * @param checkStreak (int) - the number of checking moves in a row
+	 * @param startingPly (int) - the number of moves played before the history
+	 * @param history (History) - the last move played, or null
+	 */
+	Position(long[] pieceBoards, Turn turn, int castlingRights, int enPassantSquare, long hash, int halfmoveClock,
+			int checkStreak, int startingPly, History history) {
+		this.pieceBoards = pieceBoards.clone();
+		this.turn = turn;
+		this.castlingRights = castlingRights;
+		this.enPassantSquare = enPassantSquare;
+		this.hash = hash;
+		this.halfmoveClock = halfmoveClock;
+		this.checkStreak = checkStreak;
+		this.startingPly = startingPly;
+		this.history = history;
+	}//end of constructor
+
+	/**
+	 * Returns the piece on the square x, y
+	 * @param x (int) - the x coordinate of the square
+	 * @param y (int) - the y coordinate of the square
+	 * @return Piece - the piece on the square, or Piece.EMPTY_PIECE
+	 */
+	public Piece getPieceAt(int x, int y) {
+		long bit = BitBoard.bit(x, y);
+		for (int index = 0; index < pieceBoards.length; index++) {
+			if ((pieceBoards[index] & bit) != 0) {
+				return Piece.valueOf(index);
+			}
+		}
+		return Piece.EMPTY_PIECE;
+	}//end of getPieceAt method
+
+	/**
+	 * Returns the pieces of the position as a new array, in the same layout as ChessBoard.getBoard()
+	 * @return Piece[][] - the pieces, board[x][y]
+	 */
+	public Piece[][] getBoard() {
+		Piece[][] board = new Piece[ChessBoard.LENGTH][ChessBoard.LENGTH];
+		for (int x = 0; x < ChessBoard.LENGTH; x++) {
+			for (int y = 0; y < ChessBoard.LENGTH; y++) {
+				board[x][y] = getPieceAt(x, y);
+			}
+		}
+		return board;
+	}//end of getBoard method
+
+	/**
+	 * Returns the bitboard of the pieces with the pieceType and turn given in
+	 * @param pieceType (PieceType) - the pieceType of the pieces
+	 * @param turn (Turn) - the turn of the pieces
+	 * @return long - the bitboard of the pieces
+	 */
+	public long getBitBoard(PieceType pieceType, Turn turn) {
+		if (pieceType == PieceType.EMPTY || turn == NONE) {
+			return BitBoard.EMPTY;
+		}
+		return pieceBoards[Piece.valueOf(turn, pieceType).getIndex()];
+	}//end of getBitBoard method
+
+	/**
+	 * Returns the turn to move
+	 * @return Turn - the turn to move
+	 */
+	public Turn getTurn() {
+		return turn;
+	}//end of getTurn method
+
+	/**
+	 * Returns the castles that are still allowed
+	 * @return int - a combination of the _CASTLE flags in ChessBoard
+	 */
+	public int getCastlingRights() {
+		return castlingRights;
+	}//end of getCastlingRights method
+
+	/**
+	 * Returns the square behind a pawn that just moved two squares
+	 * @return int - the square index (see BitBoard), or -1
+	 */
+	public int getEnPassantSquare() {
+		return enPassantSquare;
+	}//end of getEnPassantSquare method
+
+	/**
+	 * Returns the Zobrist hash of this position (see Zobrist)
+	 * @return long - the hash
+	 */
+	public long getHash() {
+		return hash;
+	}//end of getHash method
+
+	/**
+	 * Returns the number of moves since the last pawn move or take
+	 * @return int - the halfmove clock
+	 */
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}//end of getHalfmoveClock method
+
+	/**
+	 * Returns the number of checking moves in a row up to the last move
+	 * @return int - the check streak
+	 */
+	int getCheckStreak() {
+		return checkStreak;
+	}//end of getCheckStreak method
+
+	/**
+	 * Returns the number of moves played in the game before the first move of the history
+	 * @return int - the starting ply
+	 */
+	int getStartingPly() {
+		return startingPly;
+	}//end of getStartingPly method
+
+	/**
+	 * Returns the last move played
+	 * @return Move - the last move, or null if no move was played
+	 */
+	public Move getLastMove() {
+		return history == null ? null : history.move;
+	}//end of getLastMove method
+
+	/**
+	 * Returns the number of moves played to get to this position
+	 * @return int - the number of moves
+	 */
+	public int getMoveCount() {
+		return history == null ? 0 : history.size;
+	}//end of getMoveCount method
+
+	/**
+	 * Returns the moves played to get to this position, first move first. The list can not be changed.
+	 * @return List<Move> - the moves played
+	 */
+	public List<Move> getMoveHistory() {
+		ArrayList<Move> moves = new ArrayList<>(getMoveCount());
+		for (History node = history; node != null; node = node.previous) {
+			moves.add(node.move);
+		}
+		Collections.reverse(moves);
+		return Collections.unmodifiableList(moves);
+	}//end of getMoveHistory method
+
+	/**
+	 * Returns the last move played, which links to every move before it
+	 * @return History - the last node of the history, or null
+	 */
+	History getHistory() {
+		return history;
+	}//end of getHistory method
+
+	/**
+	 * One move of a game, with a link to the move before it. Besides the move, it keeps everything about
+	 * the position before the move that makeMove can not work out again, so a chessBoard made from a
+	 * Position can take its moves back. Nodes are never changed, so any number of chessBoards and
+	 * Positions can share them.
+	 *
+	 * @author frankliu197
+	 */
+	static final class History {
+		/** The move before this one, or null for the first move */
+		final History previous;
+
+		/** The number of moves up to and including this one */
+		final int size;
+
+		/** The move played */
+		final Move move;
+
+		/** The packed move played (see PackedMove) */
+		final int packedMove;
+
+		/* The position before the move */
+		final Turn turn;
+		final int castlingRights;
+		final int enPassantSquare;
+		final long hash;
+		final int halfmoveClock;
+		final int checkStreak;
+
+		/**
+		 * Creates a node for a move
+		 * @param previous (History) - the move before it, or null
+		 * @param move (Move) - the move played
+		 * @param packedMove (int) - the packed move played
+		 * @param turn (Turn) - the turn before the move
+		 * @param castlingRights (int) - the castling rights before the move
+		 * @param enPassantSquare (int) - the enPassuant square before the move
+		 * @param hash (long) - the hash before the move
+		 * @param halfmoveClock (int) - the halfmove clock before the move
+		 * @param checkStreak (int) - the check streak before the move
+		 */
+		History(History previous, Move move, int packedMove, Turn turn, int castlingRights, int enPassantSquare,
+				long hash, int halfmoveClock, int checkStreak) {
+			this.previous = previous;
+			this.size = previous == null ? 1 : previous.size + 1;
+			this.move = move;
+			this.packedMove = packedMove;
+			this.turn = turn;
+			this.castlingRights = castlingRights;
+			this.enPassantSquare = enPassantSquare;
+			this.hash = hash;
+			this.halfmoveClock = halfmoveClock;
+			this.checkStreak = checkStreak;
+		}//end of constructor
+	}//end of History class
+}//end of Position class
@@ -0,0 +1,129 @@
+package chessgame;
+
+import static pieces.PieceType.*;
+import static pieces.Turn.*;
+
+import java.util.Random;
+
+import pieces.Attacks;
+import pieces.Piece;
+import pieces.Turn;
+
+/**
+ * This class holds the random keys used to give every position a 64 bit hash (a Zobrist key). The hash
+ * of a position is the XOR of the keys of every piece on its square, the castling rights, the
+ * enPassuant file and the turn, so a move only has to XOR in the keys of what it changes. <br>
+ * <br>
+ * The keys come from a fixed seed, so a position has the same hash every time the program runs.
+ *
+ * @author frankliu197
+ */
+public final class Zobrist {
+	/** The seed of the keys. Changing it changes the hash of every position */
+	private static final long SEED = 0x2F6B5C3A9E1D4087L;
+
+	/** The key of every piece on every square. Use PIECES[piece.getIndex()][square] */
+	private static final long[][] PIECES = new long[Piece.EMPTY_INDEX][BitBoard.SQUARES];
+
+	/** The key of every combination of castling rights (see ChessBoard.getCastlingRights()) */
+	private static final long[] CASTLING = new long[16];
+
+	/** The key of the file of the enPassuant square */
+	private static final long[] EN_PASSANT = new long[ChessBoard.LENGTH];
+
+	/** The key that is added when it is BLACK's turn */
+	private static final long BLACK_TO_MOVE;
+
+	/**
+	 * Creates the keys
+	 */
+	static {
+		Random random = new Random(SEED);
+		for (long[] squares : PIECES) {
+			for (int square = 0; square < BitBoard.SQUARES; square++) {
+				squares[square] = random.nextLong();
+			}
+		}
+		// the castling keys are the XOR of a key for each right, so one right can be taken off at a time
+		long[] rights = new long[4];
+		for (int i = 0; i < rights.length; i++) {
+			rights[i] = random.nextLong();
+		}
+		for (int i = 0; i < CASTLING.length; i++) {
+			for (int j = 0; j < rights.length; j++) {
+				if ((i & (1 << j)) != 0) {
+					CASTLING[i] ^= rights[j];
+				}
+			}
+		}
+		for (int i = 0; i < EN_PASSANT.length; i++) {
+			EN_PASSANT[i] = random.nextLong();
+		}
+		BLACK_TO_MOVE = random.nextLong();
+	}//end of static block
+
+	/**
+	 * This class cannot be created
+	 */
+	private Zobrist() {
+	}
+
+	/**
+	 * Returns the hash of the chessBoard, worked out from scratch. ChessBoard.getHash() gives the same
+	 * value without going through the whole board.
+	 * @param chessBoard (ChessBoard) - the position to hash
+	 * @return long - the hash of the position
+	 */
+	public static long hash(ChessBoard chessBoard) {
+		long hash = castling(chessBoard.getCastlingRights()) ^ enPassant(chessBoard) ^ turn(chessBoard.getTurn());
+		for (int square = 0; square < BitBoard.SQUARES; square++) {
+			hash ^= piece(chessBoard.getPieceIndexAt(square), square);
+		}
+		return hash;
+	}//end of hash method
+
+	/**
+	 * Returns the key of a piece on a square
+	 * @param index (int) - the index of the piece (see Piece.getIndex())
+	 * @param square (int) - the square of the piece
+	 * @return long - the key, or 0 for an empty square
+	 */
+	public static long piece(int index, int square) {
+		return index == Piece.EMPTY_INDEX ? 0 : PIECES[index][square];
+	}//end of piece method
+
+	/**
+	 * Returns the key of the castling rights
+	 * @param castlingRights (int) - a combination of the _CASTLE flags in ChessBoard
+	 * @return long - the key of those rights
+	 */
+	public static long castling(int castlingRights) {
+		return CASTLING[castlingRights];
+	}//end of castling method
+
+	/**
+	 * Returns the key of the turn to move
+	 * @param turn (Turn) - the turn to move
+	 * @return long - the key of the turn (0 for WHITE)
+	 */
+	public static long turn(Turn turn) {
+		return turn == BLACK ? BLACK_TO_MOVE : 0;
+	}//end of turn method
+
+	/**
+	 * Returns the key of the enPassuant square of the chessBoard. It is only added if a pawn of the
+	 * mover can take enPassuant, so the same position reached with and without a double pawn move has
+	 * the same hash when nothing can take.
+	 * @param chessBoard (ChessBoard) - the position
+	 * @return long - the key of the enPassuant file, or 0
+	 */
+	public static long enPassant(ChessBoard chessBoard) {
+		Turn turn = chessBoard.getTurn();
+		int square = chessBoard.getEnPassantSquare(turn);
+		if (square < 0 || turn == NONE
+				|| (Attacks.pawnAttacks(square, ChessBoard.getOppositeTurn(turn)) & chessBoard.getBitBoard(PAWN, turn)) == 0) {
+			return 0;
+		}
+		return EN_PASSANT[BitBoard.getX(square)];
+	}//end of enPassant method
+}//end of Zobrist class
@@ -120,12 +120,12 @@ public final class RuleFile extends GeneralFile implements Serializable{
 	public static void main(String ... args){
 		ArrayList<Move> move = new ArrayList<>();
 		TacticFile file = new TacticFile(new ChessFile(null, null, SpecificFile.TACTIC_FILE, null ));
-		move.add(new Move(new Piece(Turn.WHITE,PieceType.QUEEN), 3,0,6,3));
-		move.add(new Move(new Piece(Turn.BLACK,PieceType.QUEEN), 3,7,3,3));
-		move.add(new Move(new Piece(Turn.WHITE,PieceType.QUEEN), 6,3,3,3));
+		move.add(new Move(Piece.valueOf(Turn.WHITE,PieceType.QUEEN), 3,0,6,3));
+		move.add(new Move(Piece.valueOf(Turn.BLACK,PieceType.QUEEN), 3,7,3,3));
+		move.add(new Move(Piece.valueOf(Turn.WHITE,PieceType.QUEEN), 6,3,3,3));
 		Piece[][] board = defaultBoard();
-		board[3][0] = new Piece(Turn.WHITE, PieceType.QUEEN);
-		board[3][7] = new Piece(Turn.BLACK, PieceType.QUEEN);
+		board[3][0] = Piece.valueOf(Turn.WHITE, PieceType.QUEEN);
+		board[3][7] = Piece.valueOf(Turn.BLACK, PieceType.QUEEN);
 		
 		file.resetInformation(board, move, null);
 		createNewRuleFile("Queen", "The queen is the most powerfull piece. It is a combination of the rook and the bishop and can move"
@@ -144,7 +144,7 @@ public final class RuleFile extends GeneralFile implements Serializable{
 		
 		for (int i = 0; i < piece.length;i++){
 			for (int j = 0; j < piece.length; j++){
-				piece[i][j] = new Piece();
+				piece[i][j] = Piece.EMPTY_PIECE;
 			}
 		}
 		
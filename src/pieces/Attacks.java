@@ -0,0 +1,335 @@
+package pieces;
+
+import chessgame.BitBoard;
+import chessgame.ChessBoard;
+
+/**
+ * This class holds the precomputed attack tables of the pieces. Every method returns the full set of
+ * squares a piece attacks as a bitboard (see BitBoard) with one table lookup. <br>
+ * <br>
+ * Knights, kings and pawns have one table entry for every square (and every turn for pawns). <br>
+ * <br>
+ * Bishops and rooks (and queens, which are both) use magic bitboards: the pieces that block a ray are
+ * masked out of the occupancy, multiplied by a magic number and shifted, which gives an index into a
+ * table that has the attacks of every possible blocker arrangement on that square. The tables are
+ * built from the magic numbers when the class is loaded.
+ *
+ * @author frankliu197
+ */
+public final class Attacks {
+	/** The directions a bishop slides in, as {x, y} pairs */
+	private static final int[][] BISHOP_DIRECTIONS = { { 1, 1 }, { -1, -1 }, { 1, -1 }, { -1, 1 } };
+
+	/** The directions a rook slides in, as {x, y} pairs */
+	private static final int[][] ROOK_DIRECTIONS = { { 1, 0 }, { -1, 0 }, { 0, -1 }, { 0, 1 } };
+
+	/** The jumps a knight can make, as {x, y} pairs */
+	private static final int[][] KNIGHT_JUMPS = { { 2, 1 }, { 2, -1 }, { -2, 1 }, { -2, -1 }, { -1, 2 }, { -1, -2 }, { 1, 2 }, { 1, -2 } };
+
+	/** The steps a king can make, as {x, y} pairs */
+	private static final int[][] KING_STEPS = { { 1, 1 }, { -1, -1 }, { 1, -1 }, { -1, 1 }, { 1, 0 }, { -1, 0 }, { 0, -1 }, { 0, 1 } };
+
+	/** The squares a knight attacks from every square */
+	private static final long[] KNIGHT_ATTACKS = new long[BitBoard.SQUARES];
+
+	/** The squares a king attacks from every square */
+	private static final long[] KING_ATTACKS = new long[BitBoard.SQUARES];
+
+	/** The squares a pawn attacks from every square. Use PAWN_ATTACKS[turn.ordinal()][square] */
+	private static final long[][] PAWN_ATTACKS = new long[2][BitBoard.SQUARES];
+
+	/** The squares strictly between two squares on the same row, column or diagonal. Use BETWEEN[square1][square2] */
+	private static final long[][] BETWEEN = new long[BitBoard.SQUARES][BitBoard.SQUARES];
+
+	/* The magic number of every square. They were found by trying random sparse numbers until one
+	 * mapped every blocker arrangement of the square without two different attacks colliding.
+	 */
+	private static final long[] BISHOP_MAGICS = {
+		0x0020428400408200L, 0x0004100440408000L, 0x82041C2482010010L, 0x0484142D80000000L,
+		0x0002021008101042L, 0x4200882008014100L, 0x0004A81108200000L, 0x0001004802011100L,
+		0x1040401024010048L, 0x0042041004204881L, 0x2008110810810020L, 0x240008060440C288L,
+		0x0021020210050020L, 0x0022810402408800L, 0x802060410420A042L, 0x0081020086481280L,
+		0x4110400860C10400L, 0x20040021240C0240L, 0x4802044104040080L, 0x00008868020042C0L,
+		0x0002204400A00002L, 0x2820408488084000L, 0x08006024041C0420L, 0x4102088190808810L,
+		0x0102201040094200L, 0xAB0A0814203800A0L, 0x4044209010008080L, 0x2020120000400440L,
+		0x4400840034802011L, 0x425051000600A200L, 0x412094012A010410L, 0x08084080A04C0440L,
+		0x0304022241C10401L, 0x0200841000210200L, 0x0602004100100100L, 0x0C04020081080080L,
+		0x00A0040400004102L, 0x30348102000100A2L, 0x10041401700C0500L, 0x8000840282424212L,
+		0x0810822110002000L, 0x00204814500084A4L, 0x0002022228009410L, 0x200000420080A810L,
+		0x0000200411108400L, 0x8240100400400020L, 0x01A4108404442100L, 0x0A020A0201A20209L,
+		0x00010C0920881A42L, 0x022104022202A400L, 0x80000022011008A0L, 0x5000441020884001L,
+		0x1001001202020008L, 0x4808202102308024L, 0x4008023004051104L, 0x44040802004E0800L,
+		0x000040A210066040L, 0x000002060A01050DL, 0x52A0040106431002L, 0x0000040200841C08L,
+		0xF000010828030409L, 0x0041201120190500L, 0x0404082081122212L, 0x000408009C008200L };
+
+	private static final long[] ROOK_MAGICS = {
+		0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+		0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+		0x0000800080204001L, 0x1000804000802001L, 0x8240801000200080L, 0x8F80801000800801L,
+		0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+		0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+		0x0001818014000800L, 0xA002010100080400L, 0x0080240001020870L, 0x0001020004048845L,
+		0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0001002100081000L,
+		0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+		0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+		0x4540040080800800L, 0x0002001004040020L, 0x0281195814001002L, 0x1240800040800100L,
+		0x0880042000524004L, 0x02C080410206002CL, 0x0801200241050010L, 0x8400080010008080L,
+		0x0008000500090010L, 0x0082009084020008L, 0x01818902102C0008L, 0x8308408041020004L,
+		0x0200860C20410200L, 0x6020200090400080L, 0x0800900020008280L, 0x0000100020090100L,
+		0x0400800400080280L, 0x0050044010200801L, 0x0101004406000B00L, 0xC100066400870200L,
+		0x440680014012A501L, 0x1023012082044112L, 0x00804080200A0012L, 0x000420310A004A42L,
+		0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L };
+
+	/* The magic tables for each square. The attacks of a slider on a square are found in
+	 * ATTACKS[square][((occupied & MASKS[square]) * MAGICS[square]) >>> SHIFTS[square]]
+	 */
+	private static final long[] BISHOP_MASKS = new long[BitBoard.SQUARES];
+	private static final int[] BISHOP_SHIFTS = new int[BitBoard.SQUARES];
+	private static final long[][] BISHOP_ATTACKS = new long[BitBoard.SQUARES][];
+
+	private static final long[] ROOK_MASKS = new long[BitBoard.SQUARES];
+	private static final int[] ROOK_SHIFTS = new int[BitBoard.SQUARES];
+	private static final long[][] ROOK_ATTACKS = new long[BitBoard.SQUARES][];
+
+	/**
+	 * Builds the attack tables
+	 */
+	static {
+		for (int square = 0; square < BitBoard.SQUARES; square++) {
+			KNIGHT_ATTACKS[square] = jumpAttacks(square, KNIGHT_JUMPS);
+			KING_ATTACKS[square] = jumpAttacks(square, KING_STEPS);
+			PAWN_ATTACKS[Turn.WHITE.ordinal()][square] = jumpAttacks(square, new int[][] { { -1, 1 }, { 1, 1 } });
+			PAWN_ATTACKS[Turn.BLACK.ordinal()][square] = jumpAttacks(square, new int[][] { { -1, -1 }, { 1, -1 } });
+
+			initMagic(square, BISHOP_DIRECTIONS, BISHOP_MAGICS[square], BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+			initMagic(square, ROOK_DIRECTIONS, ROOK_MAGICS[square], ROOK_MASKS, ROOK_SHIFTS, ROOK_ATTACKS);
+			initBetween(square, BISHOP_DIRECTIONS);
+			initBetween(square, ROOK_DIRECTIONS);
+		}
+	}//end of static block
+
+	/**
+	 * This class cannot be created
+	 */
+	private Attacks() {
+	}
+
+	/**
+	 * Returns the squares a knight on the square attacks
+	 * @param square (int) - the square of the knight
+	 * @return long - the attacked squares
+	 */
+	public static long knightAttacks(int square) {
+		return KNIGHT_ATTACKS[square];
+	}//end of knightAttacks method
+
+	/**
+	 * Returns the squares a king on the square attacks. This does not include castles
+	 * @param square (int) - the square of the king
+	 * @return long - the attacked squares
+	 */
+	public static long kingAttacks(int square) {
+		return KING_ATTACKS[square];
+	}//end of kingAttacks method
+
+	/**
+	 * Returns the squares a pawn on the square attacks (the two squares it can take on)
+	 * @param square (int) - the square of the pawn
+	 * @param turn (Turn) - the turn of the pawn, WHITE or BLACK
+	 * @return long - the attacked squares
+	 */
+	public static long pawnAttacks(int square, Turn turn) {
+		return PAWN_ATTACKS[turn.ordinal()][square];
+	}//end of pawnAttacks method
+
+	/**
+	 * Returns the squares a bishop on the square attacks
+	 * @param square (int) - the square of the bishop
+	 * @param occupied (long) - the bitboard of all the pieces on the board
+	 * @return long - the attacked squares, including the first piece in every direction
+	 */
+	public static long bishopAttacks(int square, long occupied) {
+		return BISHOP_ATTACKS[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}//end of bishopAttacks method
+
+	/**
+	 * Returns the squares a rook on the square attacks
+	 * @param square (int) - the square of the rook
+	 * @param occupied (long) - the bitboard of all the pieces on the board
+	 * @return long - the attacked squares, including the first piece in every direction
+	 */
+	public static long rookAttacks(int square, long occupied) {
+		return ROOK_ATTACKS[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}//end of rookAttacks method
+
+	/**
+	 * Returns the squares a queen on the square attacks
+	 * @param square (int) - the square of the queen
+	 * @param occupied (long) - the bitboard of all the pieces on the board
+	 * @return long - the attacked squares, including the first piece in every direction
+	 */
+	public static long queenAttacks(int square, long occupied) {
+		return bishopAttacks(square, occupied) | rookAttacks(square, occupied);
+	}//end of queenAttacks method
+
+	/**
+	 * Returns the squares a sliding piece (BISHOP, ROOK or QUEEN) on the square attacks
+	 * @param pieceType (PieceType) - the pieceType of the slider
+	 * @param square (int) - the square of the piece
+	 * @param occupied (long) - the bitboard of all the pieces on the board
+	 * @return long - the attacked squares, including the first piece in every direction
+	 */
+	public static long slidingAttacks(PieceType pieceType, int square, long occupied) {
+		switch (pieceType) {
+		case BISHOP: return bishopAttacks(square, occupied);
+		case ROOK: return rookAttacks(square, occupied);
+		case QUEEN: return queenAttacks(square, occupied);
+		default: throw new IllegalArgumentException(pieceType.name() + " IS NOT A SLIDING PIECE");
+		}
+	}//end of slidingAttacks method
+
+	/**
+	 * Returns the squares a piece of any pieceType on the square attacks
+	 * @param pieceType (PieceType) - the pieceType of the piece
+	 * @param square (int) - the square of the piece
+	 * @param turn (Turn) - the turn of the piece, which is only needed for pawns
+	 * @param occupied (long) - the bitboard of all the pieces on the board
+	 * @return long - the attacked squares (an empty bitboard for EMPTY)
+	 */
+	public static long attacks(PieceType pieceType, int square, Turn turn, long occupied) {
+		switch (pieceType) {
+		case PAWN: return pawnAttacks(square, turn);
+		case KNIGHT: return knightAttacks(square);
+		case KING: return kingAttacks(square);
+		case EMPTY: return 0;
+		default: return slidingAttacks(pieceType, square, occupied);
+		}
+	}//end of attacks method
+
+	/**
+	 * Returns the squares strictly between the two squares if they are on the same row, column or
+	 * diagonal. A piece on one of these squares blocks a slider on one square from the other.
+	 * @param square1 (int) - the first square
+	 * @param square2 (int) - the second square
+	 * @return long - the squares between them, or an empty bitboard if they are not lined up
+	 */
+	public static long between(int square1, int square2) {
+		return BETWEEN[square1][square2];
+	}//end of between method
+
+	/**
+	 * Fills in the BETWEEN table for every square a slider on the square reaches in the directions given
+	 * @param square (int) - the starting square
+	 * @param directions (int[][]) - the {x, y} directions to walk in
+	 */
+	private static void initBetween(int square, int[][] directions) {
+		for (int[] direction : directions) {
+			long ray = 0;
+			int x = BitBoard.getX(square) + direction[0];
+			int y = BitBoard.getY(square) + direction[1];
+			for (; ChessBoard.inBounds(x, y); x += direction[0], y += direction[1]) {
+				BETWEEN[square][BitBoard.square(x, y)] = ray;
+				ray |= BitBoard.bit(x, y);
+			}
+		}
+	}//end of initBetween method
+
+	/**
+	 * Returns the squares a piece that jumps by the offsets given in attacks from the square
+	 * @param square (int) - the square of the piece
+	 * @param jumps (int[][]) - the {x, y} offsets the piece can jump by
+	 * @return long - the attacked squares that are on the board
+	 */
+	private static long jumpAttacks(int square, int[][] jumps) {
+		long attacks = 0;
+		for (int[] jump : jumps) {
+			int x = BitBoard.getX(square) + jump[0];
+			int y = BitBoard.getY(square) + jump[1];
+			if (ChessBoard.inBounds(x, y)) {
+				attacks |= BitBoard.bit(x, y);
+			}
+		}
+		return attacks;
+	}//end of jumpAttacks method
+
+	/**
+	 * Fills in the magic tables of one square for one kind of slider
+	 * @param square (int) - the square to fill in
+	 * @param directions (int[][]) - the directions the slider moves in
+	 * @param magic (long) - the magic number of the square
+	 * @param masks (long[]) - the mask table to fill in
+	 * @param shifts (int[]) - the shift table to fill in
+	 * @param attacks (long[][]) - the attack table to fill in
+	 */
+	private static void initMagic(int square, int[][] directions, long magic, long[] masks, int[] shifts,
+			long[][] attacks) {
+		long mask = relevantOccupancy(square, directions);
+		int bits = BitBoard.count(mask);
+		long[] table = new long[1 << bits];
+		boolean[] used = new boolean[table.length];
+
+		// go through every blocker arrangement (every subset of the mask)
+		long occupied = 0;
+		do {
+			long reference = slowAttacks(square, occupied, directions);
+			int index = (int) ((occupied * magic) >>> (64 - bits));
+			if (used[index] && table[index] != reference) {
+				throw new IllegalStateException("BAD MAGIC NUMBER FOR SQUARE " + square);
+			}
+			used[index] = true;
+			table[index] = reference;
+			occupied = (occupied - mask) & mask;
+		} while (occupied != 0);
+
+		masks[square] = mask;
+		shifts[square] = 64 - bits;
+		attacks[square] = table;
+	}//end of initMagic method
+
+	/**
+	 * Returns the squares that can block a slider on the square. The last square of each ray is left out
+	 * since a piece there never blocks anything.
+	 * @param square (int) - the square of the slider
+	 * @param directions (int[][]) - the directions the slider moves in
+	 * @return long - the bitboard of squares that can block the slider
+	 */
+	private static long relevantOccupancy(int square, int[][] directions) {
+		long mask = 0;
+		for (int[] direction : directions) {
+			int x = BitBoard.getX(square) + direction[0];
+			int y = BitBoard.getY(square) + direction[1];
+			while (ChessBoard.inBounds(x + direction[0], y + direction[1])) {
+				mask |= BitBoard.bit(x, y);
+				x += direction[0];
+				y += direction[1];
+			}
+		}
+		return mask;
+	}//end of relevantOccupancy method
+
+	/**
+	 * Returns the squares a slider attacks by walking each ray square by square. Only used to build
+	 * the tables.
+	 * @param square (int) - the square of the slider
+	 * @param occupied (long) - the bitboard of the blocking pieces
+	 * @param directions (int[][]) - the directions the slider moves in
+	 * @return long - the attacked squares
+	 */
+	private static long slowAttacks(int square, long occupied, int[][] directions) {
+		long attacks = 0;
+		for (int[] direction : directions) {
+			int x = BitBoard.getX(square) + direction[0];
+			int y = BitBoard.getY(square) + direction[1];
+			while (ChessBoard.inBounds(x, y)) {
+				long bit = BitBoard.bit(x, y);
+				attacks |= bit;
+				if ((occupied & bit) != 0) {
+					break;
+				}
+				x += direction[0];
+				y += direction[1];
+			}
+		}
+		return attacks;
+	}//end of slowAttacks method
+}//end of Attacks class
@@ -10,19 +10,35 @@ import java.util.Arrays;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
 
+import chessgame.BitBoard;
 import chessgame.ChessBoard;
 import chessgame.Move;
+import chessgame.MoveList;
+import chessgame.PackedMove;
 
 /**
- * This class represents a piece on the chess board. It is immutable
+ * This class represents a piece on the chess board. It is immutable, and there is only one Piece
+ * object for every turn and pieceType, so use valueOf or EMPTY_PIECE to get a piece.
  * 
  * @author Robert Desai and Frank Liu
  *
  */
 public class Piece implements Serializable{
+	/** Kept the same as the version the saved files were written with */
+	private static final long serialVersionUID = 2832968688083570040L;
+	
+	/** The index of an empty piece. Every other piece has an index from 0 to 11 (see getIndex()) */
+	public static final int EMPTY_INDEX = 12;
+	
 	/**Array of piece Icons. To get the Icon of a certain piece, use getPieceIcon()*/
 	private final static ImageIcon[] PIECE_ICON;
 	
+	/**The only piece objects. PIECES[index] is the piece with that index (see getIndex())*/
+	private final static Piece[] PIECES;
+	
+	/**The piece on every empty square*/
+	public final static Piece EMPTY_PIECE;
+	
 	/** The Turn of the piece */
 	private final Turn turn;
 	
@@ -41,75 +57,90 @@ public class Piece implements Serializable{
 			PIECE_ICON[i] = new ImageIcon("ChessPieces/" + turn + " " + arr[i / 2] + ".png");
 		}
 		PIECE_ICON[12] = new ImageIcon();
+		
+		// set up the pieces
+		PIECES = new Piece[EMPTY_INDEX + 1];
+		for (int i = 0; i < EMPTY_INDEX; i++) {
+			PIECES[i] = new Piece(Turn.valueOf(i % 2), arr[i / 2]);
+		}
+		PIECES[EMPTY_INDEX] = new Piece(Turn.NONE, PieceType.EMPTY);
+		EMPTY_PIECE = PIECES[EMPTY_INDEX];
 	}
 
 	/**
 	 * Constructor Method: <br>
-	 * Creates a Black Piece with turn = NONE and pieceType = EMPTY
+	 * Creates a Piece with the given turn and pieceType. Only used to fill in PIECES
+	 * 
+	 * @param turn - (Turn) turn of Piece
+	 * @param pieceType - (PieceType) the pieceType of the Piece
 	 */
-	public Piece() {
-		this.turn = Turn.NONE;
-		this.pieceType = PieceType.EMPTY;
+	private Piece(Turn turn, PieceType pieceType) {
+		this.turn = turn;
+		this.pieceType = pieceType;
 	}
-
+	
 	/**
-	 * Constructor Method: <br>
-	 * Creates a Piece with the given turn and pieceType
+	 * Returns the piece with the given turn and pieceType. A turn of NONE or a pieceType of EMPTY
+	 * gives EMPTY_PIECE
 	 * 
 	 * @param turn - (Turn) turn of Piece
 	 * @param pieceType - (PieceType) the pieceType of the Piece
+	 * @return Piece - the only piece with that turn and pieceType
 	 */
-	public Piece(Turn turn, PieceType pieceType) {
-		this.turn = turn;
-		this.pieceType = pieceType;
+	public static Piece valueOf(Turn turn, PieceType pieceType) {
+		if (turn == NONE || pieceType == EMPTY) {
+			return EMPTY_PIECE;
+		}
+		return PIECES[pieceType.ordinal() * 2 + turn.ordinal()];
+	}
+	
+	/**
+	 * Returns the piece with the given index (see getIndex())
+	 * 
+	 * @param index - (int) the index of the piece, from 0 to 12
+	 * @return Piece - the only piece with that index
+	 */
+	public static Piece valueOf(int index) {
+		return PIECES[index];
+	}
+	
+	/**
+	 * Replaces a piece read from a file with the piece object that has the same turn and pieceType,
+	 * so there is still only one of each piece
+	 * 
+	 * @return Object - the piece with the same turn and pieceType
+	 */
+	private Object readResolve() {
+		return valueOf(turn, pieceType);
 	}
 
 	/**
-	 * This method filters the impossible moves from the possibleMove list. This
-	 * is for checking special conditions
+	 * This method filters the impossible moves from the possibleMove list. The legal moves of the
+	 * turn are generated once (see ChessBoard.generateLegalMoves), so pins, check and castles
+	 * through attacked squares are already taken in account, and every move of mpm that is not
+	 * one of them is removed. The moves left are marked checked if they put the other king in check.
 	 * 
-	 * @param postion - (int[2]) the current position of the piece
 	 * @param chessBoard - (ChessBoard) the current chessboard being used
 	 * @param mpm - (ArrayList -- Move) the possible moves for players pieces (note
 	 *            this will be changed)
-	 * @param opm - (ArrayList -- Move) the possible moves for the opponents pieces
-	 * @param check - boolean if the mover is in check
+	 * @param opm - (ArrayList -- Move) the possible moves for the opponents pieces. Not needed anymore
+	 * @param check - boolean if the mover is in check. Not needed anymore
 	 * @param turn - currentTurn of the mover
+	 * @return ArrayList<Move> - mpm, with only the legal moves
 	 */
 	public static ArrayList<Move> filterAvailableMoves(ChessBoard chessBoard, ArrayList<Move> mpm, ArrayList<Move> opm,
 			boolean check, Turn turn) {
-	
-		ArrayList<Move> castles = new ArrayList<>(2);
+		MoveList legalMoves = new MoveList();
+		chessBoard.generateLegalMoves(turn, legalMoves);
 	
 		// check if moving the piece still leaves it in check
 		for (int i = 0; i < mpm.size(); i++) {
-			ChessBoard newChessBoard = chessBoard.viewMove(mpm.get(i));
-			if (newChessBoard.illegalPosition()) {
+			int move = findMove(legalMoves, mpm.get(i));
+			if (move == PackedMove.NONE) {
 				mpm.remove(i--);
-				continue;
-			} else {
+			} else if (chessBoard.givesCheck(move)) {
 				//add checked
-				if (newChessBoard.inCheck()) {
-					Move move = mpm.get(i);
-					move = new Move(move, true);
-					mpm.set(i, move);
-				}
-			}
-			
-			//check for another condition later if castled
-			if (mpm.get(i).hasCastled()) {
-				castles.add(mpm.get(i));
-			}
-		}
-	
-		// checks for valid castles
-		for (Move move : castles) {
-	
-			// if mam does not contain the in between moves, the one move
-			// between the castles or is in check
-			if (check || !inBetweenMove(mpm, turn, move)) {
-				mpm.remove(move);
-				continue;
+				mpm.set(i, new Move(mpm.get(i), true));
 			}
 		}
 		return mpm;
@@ -148,7 +179,8 @@ public class Piece implements Serializable{
 	}
 
 	/**
-	 * Checks to see if two pieces are the same turn and pieceType
+	 * Checks to see if two pieces are the same turn and pieceType. Since there is only
+	 * one piece of each turn and pieceType, they must be the same object
 	 * 
 	 * @param object - (Object) the piece you want to compare
 	 * @return boolean - true, only if the two pieces are the same turn and
@@ -156,11 +188,17 @@ public class Piece implements Serializable{
 	 */
 	@Override
 	public boolean equals(Object object) {
-		if (object instanceof Piece) {
-			Piece otherPiece = (Piece) object;
-			return otherPiece.getTurn() == turn && otherPiece.getPieceType() == pieceType;
-		}
-		return false;
+		return this == object;
+	}
+	
+	/**
+	 * Returns the hashCode of this piece, which is its index
+	 * 
+	 * @return int - the index of this piece (see getIndex())
+	 */
+	@Override
+	public int hashCode() {
+		return getIndex();
 	}
 
 	/**
@@ -189,16 +227,25 @@ public class Piece implements Serializable{
 		return pieceType;
 	}
 
+	/**
+	 * Returns the index of this piece, which is pieceType.ordinal() * 2 + turn.ordinal(), or
+	 * EMPTY_INDEX for an empty piece. Every piece with the same turn and pieceType has the same index.
+	 * @return int - the index of this piece, from 0 to 12
+	 */
+	public int getIndex() {
+		if (pieceType == EMPTY) {
+			return EMPTY_INDEX;
+		} else {
+			return pieceType.ordinal() * 2 + turn.ordinal();
+		}
+	}
+	
 	/**
 	 * Returns the Image Icon of this piece
 	 * @return imageIcon of this piece
 	 */
 	public ImageIcon getPieceIcon() {
-		if (turn == NONE) {
-			return PIECE_ICON[12];
-		} else {
-			return PIECE_ICON[pieceType.ordinal() * 2 + turn.ordinal()];
-		}
+		return PIECE_ICON[getIndex()];
 	}
 
 	/**
@@ -277,18 +324,21 @@ public class Piece implements Serializable{
 	}
 
 	/**
-	 * Checks if mpm (The mover possible moves) contains a move one to the right
-	 * or left of startX, in the direction of endX. Only works for KING
+	 * Returns the packed move in the list that moves from the same square to the same square
+	 * as the move given in. For a promotion, the first promotion in the list is returned.
 	 * 
-	 * @param mpm - (ArrayList -- Move) mover available moves
-	 * @param turn - (Turn) the turn of the mover
-	 * @param move - (Move) the move to test
-	 * @return boolean - if the move is contained in mpm (mover possible moves)
+	 * @param list - (MoveList) the packed moves to search through
+	 * @param move - (Move) the move to find
+	 * @return int - the packed move, or PackedMove.NONE if it is not in the list
 	 */
-	private static boolean inBetweenMove(ArrayList<Move> mpm, Turn turn, Move move) {
-		int j = move.endX() - move.startX() > 0 ? 1 : -1; // determines
-															// direction
-		return mpm.contains(
-				new Move(new Piece(turn, KING), move.startX(), move.startY(), move.startX() + j, move.endY()));
-	}//end of inBetweenMove
+	private static int findMove(MoveList list, Move move) {
+		int start = BitBoard.square(move.startX(), move.startY());
+		int end = BitBoard.square(move.endX(), move.endY());
+		for (int i = 0; i < list.size(); i++) {
+			if (PackedMove.getStart(list.get(i)) == start && PackedMove.getEnd(list.get(i)) == end) {
+				return list.get(i);
+			}
+		}
+		return PackedMove.NONE;
+	}//end of findMove
 }//end of Piece class
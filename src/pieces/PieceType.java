@@ -2,6 +2,7 @@ package pieces;
 
 import javax.swing.ImageIcon;
 
+import chessgame.BitBoard;
 import chessgame.ChessBoard;
 import chessgame.Move;
 
@@ -19,22 +20,12 @@ import java.util.ArrayList;
 public enum PieceType implements Serializable{
 	PAWN, BISHOP, KNIGHT, ROOK, QUEEN, KING, EMPTY;
 
-	private static final int PAWN_WHITE_ENPASSANT_YPOSITION = 4;
-	private static final int PAWN_BLACK_ENPASSANT_YPOSITION = 3;
 	private static final int PAWN_WHITE_STARTING_YPOSITION = 1;
 	private static final int PAWN_BLACK_STARTING_YPOSITION = 6;
 	private static final int PAWN_WHITE_TRAVEL_DIRECTION = 1;
 	private static final int PAWN_BLACK_TRAVEL_DIRECTION = -1;
-	private static final int PAWN_TAKING_CASES = 2;
 	private static final int KING_NUMBER_OF_POSSIBLE_CASTLES = 2;
 	
-	/* Number of cases and the range of each case for a certain pieceType
-	 * You get the range for a certain pieceType using
-	 * CASES[pieceType.ordinal()]
-	 */
-	private static final int[] CASES = {4, 4, 8, 4, 8, 8, 0};
-	private static final int[] RANGE = {1, 7, 1, 7, 7, 1, 0};
-	
 	@Override
 	public String toString(){
 		if (this == KNIGHT){
@@ -57,42 +48,64 @@ public enum PieceType implements Serializable{
 	protected ArrayList<Move> getPossibleMoves(int[] position, Turn turn, ChessBoard chessBoard){
 		if (this == PAWN){
 			return getPawnPossibleMoves(position, turn, chessBoard);
+		} else if (isSliding()) {
+			return getSlidingPossibleMoves(position, turn, chessBoard);
+		} else if (this == EMPTY) {
+			return new ArrayList<>(0);
 		} else {
-			int num = ordinal();
+			int square = BitBoard.square(position[0], position[1]);
+			long targets;
 			ArrayList<Move> places;
 			
 			if (this == KING){
-				places = new ArrayList<>(RANGE[num] * CASES[num] + KING_NUMBER_OF_POSSIBLE_CASTLES);
+				targets = Attacks.kingAttacks(square);
+				places = new ArrayList<>(BitBoard.count(targets) + KING_NUMBER_OF_POSSIBLE_CASTLES);
 				places.addAll(addCastles(position, turn, chessBoard));
 			} else {
-				places = new ArrayList<>(RANGE[num] * CASES[num]);
+				targets = Attacks.knightAttacks(square);
+				places = new ArrayList<>(BitBoard.count(targets));
+			}
+			
+			// every square not taken by a friendly piece is empty or an enemy piece
+			for (targets &= ~chessBoard.getBitBoard(turn); targets != 0; targets = BitBoard.popLowest(targets)) {
+				int target = BitBoard.lowest(targets);
+				addMove(chessBoard, position, BitBoard.getX(target), BitBoard.getY(target), places);
 			}
-	
-			// for all cases and ranges
-			for (int n = 0; n < CASES[num]; n++) {
-				for (int i = 1; i <= RANGE[num]; i++) {
-	
-					int[] coords = combine(n, position, i);
-	
-					if (inBounds(coords)) {
-						if (chessBoard.isEmptyAt(coords)) {
-							// empty square
-							addMove(chessBoard, position, coords, places);
-						} else if (chessBoard.containsEnemyPieceAt(coords, turn)) {
-							// attacking opponent piece
-							addMove(chessBoard, position, coords, places);
-							break;
-						} else {
-							// attacking own piece
-							break;
-						}
-					}//end of inBounds if statment
-				}//end of range for statements
-			}//end of cases for statement
 			return places;
 		}//end of checking pieceType if statement
 	}//end of getPossibleMoves method
 
+	/**
+	 * Returns the possible moves of a sliding piece using the attack tables in Attacks, instead of
+	 * walking every direction one square at a time. <br>
+	 * This does not take check in account
+	 * 
+	 * @param position - (int[2]) position of the piece
+	 * @param turn - (Turn) the turn of the piece
+	 * @param chessBoard - (chessBoard) chessBoard the piece appears on
+	 * @return (ArrayList -- move) - all the possible moves for the piece
+	 */
+	private ArrayList<Move> getSlidingPossibleMoves(int[] position, Turn turn, ChessBoard chessBoard) {
+		long attacks = Attacks.slidingAttacks(this, BitBoard.square(position[0], position[1]), chessBoard.getOccupied());
+		long targets = attacks & ~chessBoard.getBitBoard(turn);
+		ArrayList<Move> places = new ArrayList<>(BitBoard.count(targets));
+		
+		// every target is either empty or an enemy piece
+		for (; targets != 0; targets = BitBoard.popLowest(targets)) {
+			int square = BitBoard.lowest(targets);
+			addMove(chessBoard, position, BitBoard.getX(square), BitBoard.getY(square), places);
+		}
+		return places;
+	}//end of getSlidingPossibleMoves method
+	
+	/**
+	 * Returns if this pieceType slides across the board (BISHOP, ROOK and QUEEN)
+	 * @return boolean - true if this is a sliding pieceType
+	 */
+	public boolean isSliding() {
+		return this == BISHOP || this == ROOK || this == QUEEN;
+	}//end of isSliding method
+
 	/**
 	 * Adds a move to the list as given in places. If the move is attacking a king, it will go to
 	 * the front of the list.<br>
@@ -102,15 +115,17 @@ public enum PieceType implements Serializable{
 	 * 
 	 * @param chessBoard - (chessBoard) the chessBoard this is valid in
 	 * @param startPos - (int[2]) old position of the piece
-	 * @param endPos - (int[2]) new position of the piece
+	 * @param endX - (int) new x position of the piece
+	 * @param endY - (int) new y position of the piece
 	 * @param places - (ArrayList -- move) arrayList to add move to
 	 */
-	private static void addMove(ChessBoard chessBoard, int[] startPos, int[] endPos, ArrayList<Move> places) {
+	private static void addMove(ChessBoard chessBoard, int[] startPos, int endX, int endY, ArrayList<Move> places) {
+		Move move = new Move(chessBoard.getPieceAt(startPos), startPos[0], startPos[1], endX, endY);
 		// if is attacking king, put it in the front of the list
-		if (chessBoard.containsPieceAt(endPos, KING)) {
-			places.add(0, new Move(chessBoard.getPieceAt(startPos), startPos, endPos));
+		if (chessBoard.containsPieceAt(endX, endY, KING)) {
+			places.add(0, move);
 		} else {
-			places.add(new Move(chessBoard.getPieceAt(startPos), startPos, endPos));
+			places.add(move);
 		}
 	}//end of addMove method
 
@@ -129,85 +144,18 @@ public enum PieceType implements Serializable{
 			Piece king = chessBoard.getPieceAt(position);
 			
 			// castle to king side
-			if (canCastle(chessBoard, position, KINGSIDE_ROOK_XPOSITION, turn)) {
-				moves.add(new Move(king, position, new int[] { position[0] + ChessBoard.CASTLE_DISTANCE, position[1]}, new Piece(), new Piece(), true, false));
+			if (chessBoard.canCastle(turn, true)) {
+				moves.add(new Move(king, position, new int[] { position[0] + ChessBoard.CASTLE_DISTANCE, position[1]}, Piece.EMPTY_PIECE, Piece.EMPTY_PIECE, true, false));
 			}
 	
 			// castle to queen side
-			if (canCastle(chessBoard, position, QUEENSIDE_ROOK_XPOSITION, turn)) {
-				moves.add(new Move(king, position, new int[] { position[0] - ChessBoard.CASTLE_DISTANCE, position[1] }, new Piece(), new Piece(), true, false));	
+			if (chessBoard.canCastle(turn, false)) {
+				moves.add(new Move(king, position, new int[] { position[0] - ChessBoard.CASTLE_DISTANCE, position[1] }, Piece.EMPTY_PIECE, Piece.EMPTY_PIECE, true, false));	
 			}
 		}
 		return moves;
 	}//end of addCastles
 
-	/**
-	 * Returns if the king can castle, assuming that the King is in the
-	 * right position to castle. It checks if the rook exists, if they moved
-	 * and if there are any pieces between it
-	 * 
-	 * @param chessBoard - (chessBoard) the chessBoard the information is valid in
-	 * @param position - (int[2]) the position of the king
-	 * @param rookXPos - (int) the x position of the rook the king is castling to
-	 * @param turn - (Turn)s the turn of the king
-	 * @return boolean - if the king can castle with that rook
-	 */
-	private boolean canCastle(ChessBoard chessBoard, int[] position, int rookXPos, Turn turn) {
-	
-		// check if the rook is in the right position
-		boolean rookAvailable = chessBoard.containsFriendlyPieceAt(rookXPos, position[1], ROOK, turn);
-	
-		// direction - direction to check; places - places to check
-		int direction;
-		int places;
-	
-		// check queens side or king side castle
-		if (rookXPos == KINGSIDE_ROOK_XPOSITION) {
-			direction = 1;
-			places = 2;
-		} else {
-			direction = -1;
-			places = 3;
-		}
-	
-		// check if all the places between is not empty, return false
-		for (int i = 1; i <= places; i++) {
-			if (!chessBoard.isEmptyAt(position[0] + direction * i, position[1])) {
-				return false;
-			}
-		}
-	
-		// check if both king and rook has not moved
-		boolean kHasNotMoved = chessBoard.hasNotMoved(position);
-		boolean rHasNotMoved = chessBoard.hasNotMoved(rookXPos, position[1]);
-	
-		return rookAvailable && kHasNotMoved && rHasNotMoved;
-	}//end of CanCastle method
-
-	/** 
-	 * A method that uses all combine methods of pieces in piecesCombine static class: <br>
-	 * Combines different positions this pieceType can move <br>
-	 * <b> see </b> piecesCombine
-	 * @param n - (int) iteration number (case #)
-	 * @param position- (int[2]) coordinates of the piece
-	 * @param i - (int) value (the distance to use for a certain case)<br>
-	 * 			e.g. for a rook on a case where it will go towards the right,
-	 * 			it will go i values to the right
-	 * @return int[] - int[0] for new x coordinates and int[1] for new y
-	 *         coordinates
-	 */
-	private int[] combine(int n, int[] position, int i){
-		switch(this){
-		case PAWN: return PiecesCombine.pawnCombine(n, position, i);
-		case BISHOP: return PiecesCombine.bishopCombine(n, position, i);
-		case KNIGHT: return PiecesCombine.knightCombine(n, position, i);
-		case ROOK: return PiecesCombine.rookCombine(n, position, i);
-		case QUEEN: return PiecesCombine.queenCombine(n, position, i);
-		case KING: return PiecesCombine.kingCombine(n, position, i);
-		default: return new int[]{0, 0};
-		}
-	}//end of Combine method
-
 	/**
 	 * Returns if the the king is in the right position to castle.
 	 * 
@@ -224,269 +172,66 @@ public enum PieceType implements Serializable{
 		return false;
 	}//end of kingInCastlePosition
 
+	/**
+	 * Returns the possible moves of a pawn. The taking cases come from the pawn attack table in Attacks. <br>
+	 * This does not take check in account
+	 * 
+	 * @param position - (int[2]) position of the pawn
+	 * @param turn - (Turn) the turn of the pawn
+	 * @param chessBoard - (chessBoard) chessBoard the pawn appears on
+	 * @return (ArrayList -- move) - all the possible moves for the pawn
+	 */
 	private ArrayList<Move> getPawnPossibleMoves(int[] position, Turn turn, ChessBoard chessBoard) {
 		ArrayList<Move> places = new ArrayList<>(4);
-		ArrayList<Move> moveHistory = chessBoard.getMoveHistory();
+		int enPassantSquare = chessBoard.getEnPassantSquare(turn);
+		Piece pawn = chessBoard.getPieceAt(position);
 		
 		/*
-		 * cases: cases for combine Direction of travel: the direction of
+		 * startingY: the row the pawn starts on. Direction of travel: the direction of
 		 * Travel for the pawn
 		 */
-		int cases, directionOfTravel;
+		int startingY, directionOfTravel;
 
 		// fill in information
 		if (turn == WHITE) {
-			cases = position[1] == PAWN_WHITE_STARTING_YPOSITION ? 4 : 3;
+			startingY = PAWN_WHITE_STARTING_YPOSITION;
 			directionOfTravel = PAWN_WHITE_TRAVEL_DIRECTION;
 		} else {
-			cases = position[1] == PAWN_BLACK_STARTING_YPOSITION ? 4 : 3;
+			startingY = PAWN_BLACK_STARTING_YPOSITION;
 			directionOfTravel = PAWN_BLACK_TRAVEL_DIRECTION;
 		}
 
-		for (int n = 0; n < cases; n++) {
-			int coords[] = PiecesCombine.pawnCombine(n, position, directionOfTravel);
-
-			if (inBounds(coords)) {
-				
-				// for the taking cases
-				if (n < PAWN_TAKING_CASES) {
-					
-					//can take a piece
-					if (chessBoard.containsEnemyPieceAt(coords, turn)) {
-						addMove(chessBoard, position, coords, places);
-						continue;
-					}//end of taking if Statement
-
-					// check if piece is in the right position for enPassant
-					int[] attackingSquare = combine(n + 4, position, directionOfTravel);
-					if (moveHistory.size() > 0 && pieceAvailableForEnpassant(chessBoard, position, attackingSquare,
-							moveHistory.get(moveHistory.size() - 1), turn)) {
-						
-						// add move with special move being true
-						places.add(new Move(chessBoard.getPieceAt(position), position, coords, new Piece(), new Piece(), true, false));
-
-					}//end of enPassuant if statement
-					
-				} else {
-					// for the moving forward case
-					if (chessBoard.isEmptyAt(coords)) {
-						places.add(new Move(chessBoard.getPieceAt(position), position, coords));
-					} else {
-						break;
-					}
-				}
-			} // end of checking boundaries
-		} // end of for loop
-		return places;
-	}
-	
-	/**
-	 * Checks if a piece is available for enPassant
-	 * @param chessBoard - (chessBoard) the chessBoard this is occurring on
-	 * @param position - (int[]) the position of the pawn
-	 * @param combine - (int[]) the position of the square the pawn is attacking
-	 *            for enPassuant
-	 * @param lastMove - (chessBoard) the last move done on the chessBoard
-	 * @param turn - (Turn) the turn of the player pawn (not enemy)
-	 * @return boolean - if the piece can enPassant
-	 */
-	private boolean pieceAvailableForEnpassant(ChessBoard chessBoard, int[] position, int[] combined, Move lastMove, Turn turn) {
-
-		// rightPlace: if this pawn is in the right place
-		int enPassantLine = turn == WHITE ? PAWN_WHITE_ENPASSANT_YPOSITION : PAWN_BLACK_ENPASSANT_YPOSITION;
-		boolean rightPlace = position[1] == enPassantLine;
-
-		// pieceAvailable: if the position contains a enemy pawn
-		boolean pieceAvailable = chessBoard.containsEnemyPieceAt(combined, PAWN, turn);
-
-		// checks if the enemy pawn started from a start position (since
-		// pawn is in the right place, it has to have moved twice)
-		boolean fromStartPosition = lastMove.startY() == PAWN_WHITE_STARTING_YPOSITION || lastMove.startY() == PAWN_BLACK_STARTING_YPOSITION;
-
-		// check if the last moved moved is the enemy pawn, by checking the
-		// end position
-		boolean lastMovePawn = lastMove.hasEndPosition(combined);
-		
-		return rightPlace && pieceAvailable && fromStartPosition && lastMovePawn;
-	}//end of pieceAvailableForEnpassant
-		
-	/**
-	 * A container for combine methods of pieces. Here are what all the combine methods do: <br>
-	 * All the combine methods are written (pieceType)Combine. <br> <br>
-	 * Here is the javadoc of the combine method <br> 
-	 * <br>
-	 *
-	 * Combines the numbers given for different possible placements of the piece <br>
-	 * 
-	 * @param n - (int) iteration number (case #)
-	 * @param position- (int[2]) coordinates of the piece
-	 * @param i - (int) value (the distance to use for a certain case)<br>
-	 * 			e.g. for a rook on a case where it will go towards the right,
-	 * 			it will go i values to the right
-	 * @return int[] - int[0] for new x coordinates and int[1] for new y
-	 *         coordinates
-	 *
-	 * @author frankliu197
-	 */
-	private static class PiecesCombine {
-		
-		/**
-		 * A combine method for a PAWN: <br>
-		 * Combines the numbers given for different possible placements of the piece <br>
-		 * 
-		 * @param n - (int) iteration number (case #)
-		 * @param position- (int[2]) coordinates of the piece
-		 * @param i - (int) value (the distance to use for a certain case)<br>
-		 * @return int[] - int[0] for new x coordinates and int[1] for new y
-		 *         coordinates
-		 */
-		private static int[] pawnCombine(int n, int[] position, int i){
-			switch (n) {
-			case 0:
-				return new int[] { position[0] - 1, position[1] + i };
-			// take piece on left case
-			case 1:
-				return new int[] { position[0] + 1, position[1] + i };
-			// take piece on right case
-			case 2:
-				return new int[] { position[0], position[1] + i };
-			// move 1 up case
-			case 3:
-				return new int[] { position[0], position[1] + i * 2 };
-			// move 2 up case
-			case 4:
-				return new int[] { position[0] - 1, position[1] };
-			// enpassuant case, to left
-			case 5:
-				return new int[] { position[0] + 1, position[1] };
-			// enpassuant case, to right
-			default:
-				throw new IllegalArgumentException("WRONG NUMBER");
-			}//end of switch statement
-		}//end of pawnCombine method
+		// for the taking cases
+		long attacks = Attacks.pawnAttacks(BitBoard.square(position[0], position[1]), turn);
+		for (; attacks != 0; attacks = BitBoard.popLowest(attacks)) {
+			int target = BitBoard.lowest(attacks);
+			int x = BitBoard.getX(target);
+			int y = BitBoard.getY(target);
 			
-		/**
-		 * A combine method for a BISHOP: <br>
-		 * Combines the numbers given for different possible placements of the piece <br>
-		 * 
-		 * @param n - (int) iteration number (case #)
-		 * @param position- (int[2]) coordinates of the piece
-		 * @param i - (int) value (the distance to use for a certain case)<br>
-		 * @return int[] - int[0] for new x coordinates and int[1] for new y
-		 *         coordinates
-		 */
-		private static int[] bishopCombine(int n, int[] position, int i) {
-			switch (n) {
-			case 0:
-				return new int[] { position[0] + i, position[1] + i };
-			// move diagonal up and right
-			case 1:
-				return new int[] { position[0] - i, position[1] - i };
-			// down and left
-			case 2:
-				return new int[] { position[0] + i, position[1] - i };
-			// right and down
-			case 3:
-				return new int[] { position[0] - i, position[1] + i };
-			// left and up
-			default:
-				throw new IllegalArgumentException("WRONG NUMBER");
-			}//end of switch statement
-		}//end of bishopCombine statement
-		
-		/**
-		 * A combine method for a KNIGHT: <br>
-		 * Combines the numbers given for different possible placements of the piece <br>
-		 * 
-		 * @param n - (int) iteration number (case #)
-		 * @param position- (int[2]) coordinates of the piece
-		 * @param i - (int) value (the distance to use for a certain case)<br>
-		 * @return int[] - int[0] for new x coordinates and int[1] for new y
-		 *         coordinates
-		 */
-		private static int[] knightCombine(int n, int[] position, int i) {
-			switch (n) {
-			case 0:
-				return new int[] { position[0] + 2, position[1] + 1 };
-			case 1:
-				return new int[] { position[0] + 2, position[1] - 1 };
-			case 2:
-				return new int[] { position[0] - 2, position[1] + 1 };
-			case 3:
-				return new int[] { position[0] - 2, position[1] - 1 };
-			case 4:
-				return new int[] { position[0] - 1, position[1] + 2 };
-			case 5:
-				return new int[] { position[0] - 1, position[1] - 2 };
-			case 6:
-				return new int[] { position[0] + 1, position[1] + 2 };
-			case 7:
-				return new int[] { position[0] + 1, position[1] - 2 };
-			default:
-				throw new IllegalArgumentException("WRONG NUMBER");
-			}
-		}//end of knightCombine method
-		
-		/**
-		 * A combine method for a ROOK: <br>
-		 * Combines the numbers given for different possible placements of the piece <br>
-		 * 
-		 * @param n - (int) iteration number (case #)
-		 * @param position - (int[2]) coordinates of the piece
-		 * @param i - (int) value (the distance to use for a certain case)<br>
-		 * @return int[] - int[0] for new x coordinates and int[1] for new y
-		 *         coordinates
-		 */
-		private static int[] rookCombine(int n, int[] position, int i) {
-			switch (n) {
-			case 0:
-				return new int[] { position[0] + i, position[1] };
-			// right case
-			case 1:
-				return new int[] { position[0] - i, position[1] };
-			// left case
-			case 2:
-				return new int[] { position[0], position[1] - i };
-			// down case
-			case 3:
-				return new int[] { position[0], position[1] + i };
-			// up case
-			default:
-				throw new IllegalArgumentException("WRONG NUMBER");
+			//can take a piece
+			if (chessBoard.containsEnemyPieceAt(x, y, turn)) {
+				addMove(chessBoard, position, x, y, places);
+				
+			// check if piece is in the right position for enPassant
+			} else if (target == enPassantSquare) {
+				// add move with special move being true
+				places.add(new Move(pawn, position[0], position[1], x, y, Piece.EMPTY_PIECE, Piece.EMPTY_PIECE, true, false));
 			}
-		}//end of rookCombine method
+		}//end of taking cases
 		
-		/**
-		 * A combine method for a QUEEN: <br>
-		 * Combines the numbers given for different possible placements of the piece <br>
-		 * 
-		 * @param n - (int) iteration number (case #)
-		 * @param position- (int[2]) coordinates of the piece
-		 * @param i - (int) value (the distance to use for a certain case)<br>
-		 * @return int[] - int[0] for new x coordinates and int[1] for new y
-		 *         coordinates
-		 */
-		private static int[] queenCombine(int n, int[] position, int i) {
-			return kingCombine(n, position, i);
-		}//end of queenCombine method
-		
-		/**
-		 * A combine method for a KING: <br>
-		 * Combines the numbers given for different possible placements of the piece <br>
-		 * 
-		 * @param n - (int) iteration number (case #)
-		 * @param position- (int[2]) coordinates of the piece
-		 * @param i - (int) value (the distance to use for a certain case)<br>
-		 * @return int[] - int[0] for new x coordinates and int[1] for new y
-		 *         coordinates
-		 */
-		private static int[] kingCombine(int n, int[] position, int i) {
-			if (n > 3) {
-				return rookCombine(n - 4, position, i);
-			} else {
-				return bishopCombine(n, position, i);
+		// for the moving forward cases
+		int y = position[1] + directionOfTravel;
+		if (inBounds(position[0], y) && chessBoard.isEmptyAt(position[0], y)) {
+			places.add(new Move(pawn, position[0], position[1], position[0], y));
+			
+			// move 2 up case
+			y += directionOfTravel;
+			if (position[1] == startingY && chessBoard.isEmptyAt(position[0], y)) {
+				places.add(new Move(pawn, position[0], position[1], position[0], y));
 			}
-		}//end of kingCombine method	
-	}//end of PiecesCombine static class
+		}
+		return places;
+	}
+	
 	
 }//end of pieceType class
\ No newline at end of file